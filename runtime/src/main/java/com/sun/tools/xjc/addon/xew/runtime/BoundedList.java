@@ -0,0 +1,205 @@
+package com.sun.tools.xjc.addon.xew.runtime;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.UnmarshalException;
+import jakarta.xml.bind.Unmarshaller;
+import jakarta.xml.bind.ValidationEvent;
+import jakarta.xml.bind.ValidationEventHandler;
+import jakarta.xml.bind.helpers.ValidationEventImpl;
+
+/**
+ * {@link ArrayList} which holds up to given number of elements. It substitutes the collection field of the bean for
+ * the time of unmarshalling, so that unmarshaller stops as soon as the document has more items than expected, instead
+ * of exhausting the memory. Only the size is checked when the element is added, hence the overhead is negligible.
+ * <p>
+ * The first element beyond the limit is reported to {@link ValidationEventHandler} of the unmarshaller as
+ * {@link ValidationEvent#FATAL_ERROR} and the elements beyond the limit are dropped. If the handler decides to abort,
+ * {@link #checkLimit()} called by {@code afterUnmarshal()} callback of the bean throws {@link IllegalStateException},
+ * which terminates unmarshalling (the exception thrown by the callback is reported by the unmarshaller as
+ * {@link UnmarshalException}). Without unmarshaller the list throws {@link IllegalStateException} immediately.
+ * <p>
+ * The JAXB reference implementation clears the collection before it is filled, hence {@link #isFilled()} tells if the
+ * document has the collection at all (JAXB API does not specify this behaviour). After unmarshalling the bean restores
+ * {@link #getCollection() the substituted collection} and copies the items into it, so that the limit does not apply
+ * to the bean afterwards.
+ * <p>
+ * The limit is checked by {@code add()} and {@code addAll()} methods of the list itself (not by its iterators and
+ * sublists). The list permits {@code null} elements and is not synchronized.
+ */
+public class BoundedList<E> extends ArrayList<E> {
+
+	private static final long				serialVersionUID = 1L;
+
+	private final int						limit;
+
+	/**
+	 * Name of the collection used in error message.
+	 */
+	private final String					name;
+
+	/**
+	 * The collection this list substitutes or {@code null}.
+	 */
+	private final transient Collection<E>	collection;
+
+	private final transient Unmarshaller	unmarshaller;
+
+	private boolean							filled;
+
+	/**
+	 * Message of the exceeded limit or {@code null}.
+	 */
+	private String							exceededMessage;
+
+	/**
+	 * Whether the event handler decided to abort unmarshalling when the limit was exceeded.
+	 */
+	private boolean							aborted;
+
+	/**
+	 * Create the list which holds up to given number of elements and throws {@link IllegalStateException} when the
+	 * limit is exceeded.
+	 *
+	 * @param name
+	 *            the name of the collection reported when the limit is exceeded, e.g. wrapper element name
+	 */
+	public BoundedList(int limit, String name) {
+		this(limit, name, null, null);
+	}
+
+	/**
+	 * Create the list which holds up to given number of elements and substitutes the given collection while the given
+	 * unmarshaller fills it.
+	 *
+	 * @param name
+	 *            the name of the collection reported when the limit is exceeded, e.g. wrapper element name
+	 * @param collection
+	 *            the substituted collection or {@code null}
+	 * @param unmarshaller
+	 *            the unmarshaller which is notified when the limit is exceeded or {@code null}
+	 */
+	public BoundedList(int limit, String name, Collection<E> collection, Unmarshaller unmarshaller) {
+		if (limit < 0) {
+			throw new IllegalArgumentException("Limit should not be negative: " + limit);
+		}
+
+		this.limit = limit;
+		this.name = name;
+		this.collection = collection;
+		this.unmarshaller = unmarshaller;
+	}
+
+	/**
+	 * Returns the maximum number of elements the list can hold.
+	 */
+	public int getLimit() {
+		return limit;
+	}
+
+	/**
+	 * Returns the collection this list substitutes or {@code null}.
+	 */
+	public Collection<E> getCollection() {
+		return collection;
+	}
+
+	/**
+	 * Returns {@code true} if the list was cleared, which is what unmarshaller does before it fills the collection.
+	 */
+	public boolean isFilled() {
+		return filled;
+	}
+
+	/**
+	 * Returns {@code true} if some elements were dropped because the limit was exceeded.
+	 */
+	public boolean isExceeded() {
+		return exceededMessage != null;
+	}
+
+	/**
+	 * Throws {@link IllegalStateException} if the limit was exceeded and the event handler of the unmarshaller decided
+	 * to abort unmarshalling.
+	 */
+	public void checkLimit() {
+		if (aborted) {
+			throw new IllegalStateException(exceededMessage);
+		}
+	}
+
+	@Override
+	public void clear() {
+		filled = true;
+
+		super.clear();
+	}
+
+	@Override
+	public boolean add(E element) {
+		return fits(1) && super.add(element);
+	}
+
+	@Override
+	public void add(int index, E element) {
+		if (fits(1)) {
+			super.add(index, element);
+		}
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends E> collection) {
+		return super.addAll(fitLimit(collection));
+	}
+
+	@Override
+	public boolean addAll(int index, Collection<? extends E> collection) {
+		return super.addAll(index, fitLimit(collection));
+	}
+
+	/**
+	 * Returns the given collection or its leading elements which fit into the limit.
+	 */
+	private Collection<? extends E> fitLimit(Collection<? extends E> collection) {
+		if (fits(collection.size())) {
+			return collection;
+		}
+
+		return new ArrayList<E>(collection).subList(0, Math.max(limit - size(), 0));
+	}
+
+	/**
+	 * Returns {@code true} if given number of elements can be added or {@code false} if they should be dropped.
+	 */
+	private boolean fits(int count) {
+		if (size() <= limit - count) {
+			return true;
+		}
+
+		String message = "Collection " + name + " exceeds the limit of " + limit + " items";
+
+		if (unmarshaller == null) {
+			throw new IllegalStateException(message);
+		}
+
+		if (exceededMessage == null) {
+			exceededMessage = message;
+
+			ValidationEventHandler eventHandler = null;
+
+			try {
+				eventHandler = unmarshaller.getEventHandler();
+			}
+			catch (JAXBException e) {
+				// Fall through to abort.
+			}
+
+			aborted = eventHandler == null || !eventHandler
+			            .handleEvent(new ValidationEventImpl(ValidationEvent.FATAL_ERROR, message, null));
+		}
+
+		return false;
+	}
+}
@@ -0,0 +1,249 @@
+package com.sun.tools.xjc.addon.xew.runtime;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * {@link List} implementation optimized for lists having few elements: up to {@value #INLINE_CAPACITY} elements are
+ * stored in fields of the list itself, hence such list does not allocate a backing array. When list grows further,
+ * the elements are moved to backing array, which grows the same way as for {@link ArrayList}.
+ * <p>
+ * The list permits {@code null} elements and is not synchronized.
+ */
+public class CompactList<E> extends AbstractList<E> implements RandomAccess, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Number of elements stored in fields.
+	 */
+	public static final int	  INLINE_CAPACITY  = 3;
+
+	/**
+	 * Capacity of backing array when elements are moved from fields, the same as default capacity of
+	 * {@link ArrayList}.
+	 */
+	private static final int  DEFAULT_CAPACITY = 10;
+
+	private Object			  e0;
+
+	private Object			  e1;
+
+	private Object			  e2;
+
+	/**
+	 * Backing array or {@code null} if elements are stored in fields.
+	 */
+	private Object[]		  elements;
+
+	private int				  size;
+
+	public CompactList() {
+	}
+
+	/**
+	 * Create the list which can hold given number of elements without growing. Backing array is allocated only if
+	 * capacity exceeds {@value #INLINE_CAPACITY}.
+	 */
+	public CompactList(int initialCapacity) {
+		if (initialCapacity < 0) {
+			throw new IllegalArgumentException("Capacity should not be negative: " + initialCapacity);
+		}
+
+		if (initialCapacity > INLINE_CAPACITY) {
+			elements = new Object[initialCapacity];
+		}
+	}
+
+	/**
+	 * Create the list containing the elements of given collection.
+	 */
+	public CompactList(Collection<? extends E> collection) {
+		this(collection.size());
+
+		for (E element : collection) {
+			ensureCapacity(size + 1);
+			setElementAt(size++, element);
+		}
+	}
+
+	@Override
+	public E get(int index) {
+		checkIndex(index);
+
+		return elementAt(index);
+	}
+
+	@Override
+	public E set(int index, E element) {
+		checkIndex(index);
+
+		E oldElement = elementAt(index);
+		setElementAt(index, element);
+
+		return oldElement;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean add(E element) {
+		ensureCapacity(size + 1);
+		setElementAt(size++, element);
+		modCount++;
+
+		return true;
+	}
+
+	@Override
+	public void add(int index, E element) {
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+
+		ensureCapacity(size + 1);
+
+		if (elements != null) {
+			System.arraycopy(elements, index, elements, index + 1, size - index);
+		}
+		else {
+			for (int i = size; i > index; i--) {
+				setElementAt(i, elementAt(i - 1));
+			}
+		}
+
+		setElementAt(index, element);
+		size++;
+		modCount++;
+	}
+
+	@Override
+	public E remove(int index) {
+		checkIndex(index);
+
+		E oldElement = elementAt(index);
+
+		if (elements != null) {
+			System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+		}
+		else {
+			for (int i = index; i < size - 1; i++) {
+				setElementAt(i, elementAt(i + 1));
+			}
+		}
+
+		// Let GC do its work:
+		setElementAt(--size, null);
+		modCount++;
+
+		return oldElement;
+	}
+
+	@Override
+	public void clear() {
+		e0 = e1 = e2 = null;
+
+		if (elements != null) {
+			Arrays.fill(elements, 0, size, null);
+		}
+
+		size = 0;
+		modCount++;
+	}
+
+	/**
+	 * Trim the capacity of the list to its size: elements are moved back to fields, if they fit, otherwise the backing
+	 * array is shrunk.
+	 */
+	public void trimToSize() {
+		if (elements == null || elements.length == size) {
+			return;
+		}
+
+		if (size <= INLINE_CAPACITY) {
+			Object[] array = elements;
+
+			elements = null;
+
+			for (int i = 0; i < size; i++) {
+				setElementAt(i, array[i]);
+			}
+		}
+		else {
+			elements = Arrays.copyOf(elements, size);
+		}
+
+		modCount++;
+	}
+
+	/**
+	 * Move the elements to backing array if they do not fit into fields, or grow the backing array.
+	 */
+	private void ensureCapacity(int minCapacity) {
+		if (elements == null) {
+			if (minCapacity <= INLINE_CAPACITY) {
+				return;
+			}
+
+			Object[] array = new Object[Math.max(minCapacity, DEFAULT_CAPACITY)];
+
+			array[0] = e0;
+			array[1] = e1;
+			array[2] = e2;
+			e0 = e1 = e2 = null;
+
+			elements = array;
+		}
+		else if (minCapacity > elements.length) {
+			elements = Arrays.copyOf(elements, Math.max(minCapacity, elements.length + (elements.length >> 1)));
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private E elementAt(int index) {
+		if (elements != null) {
+			return (E) elements[index];
+		}
+
+		switch (index) {
+		case 0:
+			return (E) e0;
+		case 1:
+			return (E) e1;
+		default:
+			return (E) e2;
+		}
+	}
+
+	private void setElementAt(int index, Object element) {
+		if (elements != null) {
+			elements[index] = element;
+			return;
+		}
+
+		switch (index) {
+		case 0:
+			e0 = element;
+			break;
+		case 1:
+			e1 = element;
+			break;
+		default:
+			e2 = element;
+		}
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+}
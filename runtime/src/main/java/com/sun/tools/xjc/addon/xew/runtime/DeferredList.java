@@ -0,0 +1,187 @@
+package com.sun.tools.xjc.addon.xew.runtime;
+
+import java.io.Serializable;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.WeakHashMap;
+
+import javax.xml.transform.Source;
+import javax.xml.transform.dom.DOMSource;
+
+import jakarta.xml.bind.DataBindingException;
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Unmarshaller;
+
+import org.w3c.dom.Element;
+
+/**
+ * {@link List} which holds the items captured as {@link RawXml} and unmarshals them on first access, so that the
+ * collection which is never accessed is never parsed. {@link #size()} does not trigger the parsing. The items are
+ * unmarshalled by declared type using {@link JAXBContext} created for the item class and {@code ObjectFactory} of its
+ * package (if any), which is cached.
+ * <p>
+ * The items are parsed after the document was unmarshalled, by the new {@link Unmarshaller} with default settings.
+ * Hence the settings of the unmarshaller of the document do not apply to the items: schema validation,
+ * {@link jakarta.xml.bind.ValidationEventHandler}, {@link Unmarshaller.Listener}, adapters and attachment unmarshaller
+ * set to the unmarshaller are not used, {@code IDREF} is not resolved against the document, {@code xsi:type} is
+ * resolved only to the classes known to the context of the item class, and the parent passed to
+ * {@code afterUnmarshal()} of the item is {@code null}.
+ * <p>
+ * Parsing errors are thrown as {@link DataBindingException}. The list permits {@code null} elements and is not
+ * synchronized.
+ */
+public class DeferredList<E> extends AbstractList<E> implements RandomAccess, Serializable {
+
+	private static final long									serialVersionUID	= 1L;
+
+	/**
+	 * JAXB contexts of item classes. The contexts are referred softly, so that the cache does not prevent item classes
+	 * (and their class loaders) from being unloaded.
+	 */
+	private static final Map<Class<?>, Reference<JAXBContext>>	CONTEXTS			=
+	            new WeakHashMap<Class<?>, Reference<JAXBContext>>();
+
+	private final Class<E>										itemClass;
+
+	/**
+	 * Captured items or {@code null} if the items are parsed.
+	 */
+	private List<Element>										rawItems;
+
+	private List<E>												items;
+
+	/**
+	 * Create the list which unmarshals given captured items to given class on first access.
+	 */
+	public DeferredList(Class<E> itemClass, List<Element> rawItems) {
+		this.itemClass = itemClass;
+		this.rawItems = rawItems;
+	}
+
+	/**
+	 * Returns {@code true} if the items were parsed.
+	 */
+	public boolean isParsed() {
+		return items != null;
+	}
+
+	/**
+	 * Returns the captured items, or {@code null} if they were parsed. The returned list should not be modified.
+	 */
+	public List<Element> getRawItems() {
+		return rawItems;
+	}
+
+	@Override
+	public E get(int index) {
+		return items().get(index);
+	}
+
+	@Override
+	public E set(int index, E element) {
+		return items().set(index, element);
+	}
+
+	@Override
+	public int size() {
+		return items == null ? rawItems.size() : items.size();
+	}
+
+	@Override
+	public void add(int index, E element) {
+		items().add(index, element);
+		modCount++;
+	}
+
+	@Override
+	public E remove(int index) {
+		E oldElement = items().remove(index);
+		modCount++;
+
+		return oldElement;
+	}
+
+	@Override
+	public void clear() {
+		items = new ArrayList<E>();
+		rawItems = null;
+		modCount++;
+	}
+
+	/**
+	 * Returns the JAXB context for given item class, which also knows the classes of {@code ObjectFactory} in the
+	 * package of item class.
+	 */
+	static JAXBContext getContext(Class<?> itemClass) {
+		synchronized (CONTEXTS) {
+			Reference<JAXBContext> reference = CONTEXTS.get(itemClass);
+			JAXBContext context = reference == null ? null : reference.get();
+
+			if (context == null) {
+				context = createContext(itemClass);
+
+				CONTEXTS.put(itemClass, new SoftReference<JAXBContext>(context));
+			}
+
+			return context;
+		}
+	}
+
+	/**
+	 * Create the JAXB context for given item class and {@code ObjectFactory} of its package (if any).
+	 */
+	private static JAXBContext createContext(Class<?> itemClass) {
+		Class<?> objectFactoryClass = null;
+
+		if (itemClass.getClassLoader() != null && itemClass.getPackage() != null) {
+			try {
+				objectFactoryClass = Class.forName(itemClass.getPackage().getName() + ".ObjectFactory", false,
+				            itemClass.getClassLoader());
+			}
+			catch (ClassNotFoundException e) {
+				// The item class is used alone.
+			}
+		}
+
+		try {
+			return objectFactoryClass == null ? JAXBContext.newInstance(itemClass)
+			            : JAXBContext.newInstance(itemClass, objectFactoryClass);
+		}
+		catch (JAXBException e) {
+			throw new DataBindingException(e);
+		}
+	}
+
+	/**
+	 * Parse the captured items (once).
+	 */
+	private List<E> items() {
+		if (items == null) {
+			List<E> parsedItems = new ArrayList<E>(rawItems.size());
+
+			try {
+				Unmarshaller unmarshaller = getContext(itemClass).createUnmarshaller();
+
+				for (Element rawItem : rawItems) {
+					Source source = rawItem instanceof RawXml ? ((RawXml) rawItem).toSource() : new DOMSource(rawItem);
+
+					parsedItems.add(unmarshaller.unmarshal(source, itemClass).getValue());
+				}
+			}
+			catch (JAXBException e) {
+				throw new DataBindingException(e);
+			}
+
+			items = parsedItems;
+			rawItems = null;
+		}
+
+		return items;
+	}
+}
@@ -0,0 +1,66 @@
+package com.sun.tools.xjc.addon.xew.runtime;
+
+import java.io.StringWriter;
+import java.util.List;
+
+import javax.xml.namespace.QName;
+
+import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.annotation.adapters.XmlAdapter;
+
+/**
+ * Adapts the wrapper element to {@link DeferredList}: unmarshaller captures the items as {@link RawXml} text, which
+ * is parsed on first access of the list. The list which was never accessed is marshalled from captured text,
+ * otherwise the items are marshalled one by one as fragments. Generated classes extend this class to provide the item
+ * class and the item element name.
+ */
+public abstract class DeferredListAdapter<E> extends XmlAdapter<RawContent, List<E>> {
+
+	private final Class<E> itemClass;
+
+	private final QName	   itemName;
+
+	protected DeferredListAdapter(Class<E> itemClass, QName itemName) {
+		this.itemClass = itemClass;
+		this.itemName = itemName;
+	}
+
+	@Override
+	public List<E> unmarshal(RawContent content) {
+		if (content == null) {
+			return null;
+		}
+
+		return new DeferredList<E>(itemClass, content.getElements());
+	}
+
+	@Override
+	public RawContent marshal(List<E> list) throws JAXBException {
+		if (list == null) {
+			return null;
+		}
+
+		RawContent content = new RawContent();
+
+		if (list instanceof DeferredList && !((DeferredList<E>) list).isParsed()) {
+			content.elements = ((DeferredList<E>) list).getRawItems();
+
+			return content;
+		}
+
+		Marshaller marshaller = DeferredList.getContext(itemClass).createMarshaller();
+
+		marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+
+		for (E item : list) {
+			StringWriter writer = new StringWriter();
+
+			marshaller.marshal(new JAXBElement<E>(itemName, itemClass, item), writer);
+			content.getElements().add(new RawXml(writer.toString()));
+		}
+
+		return content;
+	}
+}
@@ -0,0 +1,25 @@
+package com.sun.tools.xjc.addon.xew.runtime;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlAnyElement;
+
+import org.w3c.dom.Element;
+
+/**
+ * Content of the element captured by {@link RawXmlDomHandler}: child elements are kept as {@link RawXml} text, text
+ * between them is ignored. Used as value type by {@link DeferredListAdapter}.
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+public class RawContent {
+
+	@XmlAnyElement(RawXmlDomHandler.class)
+	protected List<Element> elements = new ArrayList<Element>();
+
+	public List<Element> getElements() {
+		return elements;
+	}
+}
@@ -0,0 +1,388 @@
+package com.sun.tools.xjc.addon.xew.runtime;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.StringReader;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.Source;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamSource;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.TypeInfo;
+import org.w3c.dom.UserDataHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Wildcard ({@code xs:any}) element captured by {@link RawXmlDomHandler} as XML text. The text takes about the size of
+ * source XML, while DOM tree of the same element takes many times more, hence the content which is only forwarded is
+ * better kept as text. The text contains declarations of all namespaces which are in scope of the element, hence it
+ * is well-formed XML document on its own.
+ * <p>
+ * The class implements {@link Element}, so it can be used wherever DOM element is expected: the element is parsed
+ * from the text on first call of any {@link Element} method and all calls are delegated to it. Once the element is
+ * parsed, it is marshalled instead of the text, so modifications made via DOM are preserved, but they are not
+ * reflected by {@link #getXml()}. Like other DOM implementations, the class is not thread-safe.
+ */
+public final class RawXml implements Element, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String	  xml;
+
+	private transient Element element;
+
+	public RawXml(String xml) {
+		if (xml == null) {
+			throw new NullPointerException("XML should not be null");
+		}
+
+		this.xml = xml;
+	}
+
+	/**
+	 * Returns the XML text of the element as it was captured.
+	 */
+	public String getXml() {
+		return xml;
+	}
+
+	/**
+	 * Returns {@code true} if the element was parsed from the text.
+	 */
+	public boolean isParsed() {
+		return element != null;
+	}
+
+	/**
+	 * Returns the source to marshal the element from: the text, unless the element was parsed.
+	 */
+	Source toSource() {
+		if (element != null) {
+			return new DOMSource(element);
+		}
+
+		return new StreamSource(new StringReader(xml));
+	}
+
+	/**
+	 * Parse the XML text into DOM element (once).
+	 */
+	private Element toElement() {
+		if (element == null) {
+			try {
+				DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+
+				factory.setNamespaceAware(true);
+				factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+
+				element = factory.newDocumentBuilder().parse(new InputSource(new StringReader(xml)))
+				            .getDocumentElement();
+			}
+			catch (ParserConfigurationException | SAXException | IOException e) {
+				throw new IllegalStateException("Failed to parse captured XML", e);
+			}
+		}
+
+		return element;
+	}
+
+	@Override
+	public boolean isSameNode(Node other) {
+		return other == this || toElement().isSameNode(other);
+	}
+
+	@Override
+	public String getNodeName() {
+		return toElement().getNodeName();
+	}
+
+	@Override
+	public String getNodeValue() {
+		return toElement().getNodeValue();
+	}
+
+	@Override
+	public void setNodeValue(String nodeValue) {
+		toElement().setNodeValue(nodeValue);
+	}
+
+	@Override
+	public short getNodeType() {
+		return toElement().getNodeType();
+	}
+
+	@Override
+	public Node getParentNode() {
+		return toElement().getParentNode();
+	}
+
+	@Override
+	public NodeList getChildNodes() {
+		return toElement().getChildNodes();
+	}
+
+	@Override
+	public Node getFirstChild() {
+		return toElement().getFirstChild();
+	}
+
+	@Override
+	public Node getLastChild() {
+		return toElement().getLastChild();
+	}
+
+	@Override
+	public Node getPreviousSibling() {
+		return toElement().getPreviousSibling();
+	}
+
+	@Override
+	public Node getNextSibling() {
+		return toElement().getNextSibling();
+	}
+
+	@Override
+	public NamedNodeMap getAttributes() {
+		return toElement().getAttributes();
+	}
+
+	@Override
+	public Document getOwnerDocument() {
+		return toElement().getOwnerDocument();
+	}
+
+	@Override
+	public Node insertBefore(Node newChild, Node refChild) {
+		return toElement().insertBefore(newChild, refChild);
+	}
+
+	@Override
+	public Node replaceChild(Node newChild, Node oldChild) {
+		return toElement().replaceChild(newChild, oldChild);
+	}
+
+	@Override
+	public Node removeChild(Node oldChild) {
+		return toElement().removeChild(oldChild);
+	}
+
+	@Override
+	public Node appendChild(Node newChild) {
+		return toElement().appendChild(newChild);
+	}
+
+	@Override
+	public boolean hasChildNodes() {
+		return toElement().hasChildNodes();
+	}
+
+	@Override
+	public Node cloneNode(boolean deep) {
+		return toElement().cloneNode(deep);
+	}
+
+	@Override
+	public void normalize() {
+		toElement().normalize();
+	}
+
+	@Override
+	public boolean isSupported(String feature, String version) {
+		return toElement().isSupported(feature, version);
+	}
+
+	@Override
+	public String getNamespaceURI() {
+		return toElement().getNamespaceURI();
+	}
+
+	@Override
+	public String getPrefix() {
+		return toElement().getPrefix();
+	}
+
+	@Override
+	public void setPrefix(String prefix) {
+		toElement().setPrefix(prefix);
+	}
+
+	@Override
+	public String getLocalName() {
+		return toElement().getLocalName();
+	}
+
+	@Override
+	public boolean hasAttributes() {
+		return toElement().hasAttributes();
+	}
+
+	@Override
+	public String getBaseURI() {
+		return toElement().getBaseURI();
+	}
+
+	@Override
+	public short compareDocumentPosition(Node other) {
+		return toElement().compareDocumentPosition(other);
+	}
+
+	@Override
+	public String getTextContent() {
+		return toElement().getTextContent();
+	}
+
+	@Override
+	public void setTextContent(String textContent) {
+		toElement().setTextContent(textContent);
+	}
+
+	@Override
+	public String lookupPrefix(String namespaceURI) {
+		return toElement().lookupPrefix(namespaceURI);
+	}
+
+	@Override
+	public boolean isDefaultNamespace(String namespaceURI) {
+		return toElement().isDefaultNamespace(namespaceURI);
+	}
+
+	@Override
+	public String lookupNamespaceURI(String prefix) {
+		return toElement().lookupNamespaceURI(prefix);
+	}
+
+	@Override
+	public boolean isEqualNode(Node arg) {
+		return toElement().isEqualNode(arg);
+	}
+
+	@Override
+	public Object getFeature(String feature, String version) {
+		return toElement().getFeature(feature, version);
+	}
+
+	@Override
+	public Object setUserData(String key, Object data, UserDataHandler handler) {
+		return toElement().setUserData(key, data, handler);
+	}
+
+	@Override
+	public Object getUserData(String key) {
+		return toElement().getUserData(key);
+	}
+
+	@Override
+	public String getTagName() {
+		return toElement().getTagName();
+	}
+
+	@Override
+	public String getAttribute(String name) {
+		return toElement().getAttribute(name);
+	}
+
+	@Override
+	public void setAttribute(String name, String value) {
+		toElement().setAttribute(name, value);
+	}
+
+	@Override
+	public void removeAttribute(String name) {
+		toElement().removeAttribute(name);
+	}
+
+	@Override
+	public Attr getAttributeNode(String name) {
+		return toElement().getAttributeNode(name);
+	}
+
+	@Override
+	public Attr setAttributeNode(Attr newAttr) {
+		return toElement().setAttributeNode(newAttr);
+	}
+
+	@Override
+	public Attr removeAttributeNode(Attr oldAttr) {
+		return toElement().removeAttributeNode(oldAttr);
+	}
+
+	@Override
+	public NodeList getElementsByTagName(String name) {
+		return toElement().getElementsByTagName(name);
+	}
+
+	@Override
+	public String getAttributeNS(String namespaceURI, String localName) {
+		return toElement().getAttributeNS(namespaceURI, localName);
+	}
+
+	@Override
+	public void setAttributeNS(String namespaceURI, String qualifiedName, String value) {
+		toElement().setAttributeNS(namespaceURI, qualifiedName, value);
+	}
+
+	@Override
+	public void removeAttributeNS(String namespaceURI, String localName) {
+		toElement().removeAttributeNS(namespaceURI, localName);
+	}
+
+	@Override
+	public Attr getAttributeNodeNS(String namespaceURI, String localName) {
+		return toElement().getAttributeNodeNS(namespaceURI, localName);
+	}
+
+	@Override
+	public Attr setAttributeNodeNS(Attr newAttr) {
+		return toElement().setAttributeNodeNS(newAttr);
+	}
+
+	@Override
+	public NodeList getElementsByTagNameNS(String namespaceURI, String localName) {
+		return toElement().getElementsByTagNameNS(namespaceURI, localName);
+	}
+
+	@Override
+	public boolean hasAttribute(String name) {
+		return toElement().hasAttribute(name);
+	}
+
+	@Override
+	public boolean hasAttributeNS(String namespaceURI, String localName) {
+		return toElement().hasAttributeNS(namespaceURI, localName);
+	}
+
+	@Override
+	public TypeInfo getSchemaTypeInfo() {
+		return toElement().getSchemaTypeInfo();
+	}
+
+	@Override
+	public void setIdAttribute(String name, boolean isId) {
+		toElement().setIdAttribute(name, isId);
+	}
+
+	@Override
+	public void setIdAttributeNS(String namespaceURI, String localName, boolean isId) {
+		toElement().setIdAttributeNS(namespaceURI, localName, isId);
+	}
+
+	@Override
+	public void setIdAttributeNode(Attr idAttr, boolean isId) {
+		toElement().setIdAttributeNode(idAttr, isId);
+	}
+
+	@Override
+	public String toString() {
+		return xml;
+	}
+}
@@ -0,0 +1,50 @@
+package com.sun.tools.xjc.addon.xew.runtime;
+
+import java.io.StringWriter;
+
+import javax.xml.transform.Source;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import jakarta.xml.bind.ValidationEventHandler;
+import jakarta.xml.bind.annotation.DomHandler;
+import jakarta.xml.bind.annotation.XmlAnyElement;
+
+import org.w3c.dom.Element;
+
+/**
+ * {@link DomHandler} which captures wildcard elements as {@link RawXml} text instead of DOM trees, to be used with
+ * {@link XmlAnyElement#value()} in place of default {@link jakarta.xml.bind.annotation.W3CDomHandler}. Unmarshaller
+ * streams the element into the text and marshaller streams the text back into the output, so DOM tree is built only
+ * if the application accesses the element. Other {@link Element} implementations are marshalled as usual.
+ */
+public class RawXmlDomHandler implements DomHandler<Element, StreamResult> {
+
+	private static final String XML_DECLARATION_END = "?>";
+
+	@Override
+	public StreamResult createUnmarshaller(ValidationEventHandler errorHandler) {
+		return new StreamResult(new StringWriter());
+	}
+
+	@Override
+	public Element getElement(StreamResult result) {
+		String xml = result.getWriter().toString();
+
+		// Identity transformer, which writes the result, outputs the XML declaration:
+		if (xml.startsWith("<?xml")) {
+			xml = xml.substring(xml.indexOf(XML_DECLARATION_END) + XML_DECLARATION_END.length());
+		}
+
+		return new RawXml(xml);
+	}
+
+	@Override
+	public Source marshal(Element element, ValidationEventHandler errorHandler) {
+		if (element instanceof RawXml) {
+			return ((RawXml) element).toSource();
+		}
+
+		return new DOMSource(element);
+	}
+}
@@ -0,0 +1,205 @@
+package com.sun.tools.xjc.addon.xew.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.UnmarshalException;
+import jakarta.xml.bind.Unmarshaller;
+import jakarta.xml.bind.ValidationEvent;
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlElementWrapper;
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+import org.junit.Test;
+
+/**
+ * Testcases for {@link BoundedList}.
+ */
+public class BoundedListTest {
+
+	/**
+	 * The bean with the callbacks generated by {@code limit} option.
+	 */
+	@XmlRootElement(name = "shipment")
+	@XmlAccessorType(XmlAccessType.FIELD)
+	public static class Shipment {
+
+		@XmlElementWrapper(name = "boxes")
+		@XmlElement(name = "box")
+		public List<String> boxes;
+
+		protected void beforeUnmarshal(Unmarshaller unmarshaller, Object parent) {
+			this.boxes = new BoundedList<String>(2, "boxes", this.boxes, unmarshaller);
+		}
+
+		protected void afterUnmarshal(Unmarshaller unmarshaller, Object parent) {
+			if (this.boxes instanceof BoundedList) {
+				BoundedList<String> boundedList = (BoundedList<String>) this.boxes;
+				boundedList.checkLimit();
+				this.boxes = (List<String>) boundedList.getCollection();
+				if (boundedList.isFilled()) {
+					if (this.boxes == null) {
+						this.boxes = new ArrayList<String>();
+					}
+					else {
+						this.boxes.clear();
+					}
+					this.boxes.addAll(boundedList);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testWithinLimit() {
+		List<String> list = new BoundedList<String>(3, "items");
+
+		list.add("a");
+		list.add(0, "b");
+		list.add(null);
+
+		assertEquals(Arrays.asList("b", "a", null), list);
+
+		list.remove(0);
+		list.add("c");
+
+		assertEquals(Arrays.asList("a", null, "c"), list);
+	}
+
+	@Test
+	public void testLimitExceeded() {
+		List<String> list = new BoundedList<String>(2, "items");
+
+		list.add("a");
+		list.add("b");
+
+		try {
+			list.add("c");
+			fail("IllegalStateException is expected");
+		}
+		catch (IllegalStateException e) {
+			assertEquals("Collection items exceeds the limit of 2 items", e.getMessage());
+		}
+
+		assertEquals(Arrays.asList("a", "b"), list);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testAddAllExceedsLimit() {
+		List<String> list = new BoundedList<String>(3, "items");
+
+		list.add("a");
+		list.addAll(Arrays.asList("b", "c", "d"));
+	}
+
+	@Test
+	public void testClearResetsLimit() {
+		List<String> list = new BoundedList<String>(1, "items");
+
+		list.add("a");
+		list.clear();
+		list.add("b");
+
+		assertEquals(Arrays.asList("b"), list);
+	}
+
+	@Test
+	public void testClearMarksFilled() {
+		BoundedList<String> list = new BoundedList<String>(1, "items");
+
+		assertFalse(list.isFilled());
+
+		list.clear();
+
+		assertTrue(list.isFilled());
+	}
+
+	@Test
+	public void testUnmarshalWithinLimit() throws Exception {
+		Shipment shipment = unmarshal(JAXBContext.newInstance(Shipment.class).createUnmarshaller(),
+		            "<shipment><boxes><box>a</box><box>b</box></boxes></shipment>");
+
+		assertEquals(ArrayList.class, shipment.boxes.getClass());
+		assertEquals(Arrays.asList("a", "b"), shipment.boxes);
+
+		// The limit does not apply after unmarshalling:
+		shipment.boxes.add("c");
+
+		assertEquals(3, shipment.boxes.size());
+	}
+
+	@Test
+	public void testUnmarshalAbsent() throws Exception {
+		Shipment shipment = unmarshal(JAXBContext.newInstance(Shipment.class).createUnmarshaller(), "<shipment/>");
+
+		assertNull(shipment.boxes);
+	}
+
+	@Test
+	public void testUnmarshalLimitExceeded() throws Exception {
+		try {
+			unmarshal(JAXBContext.newInstance(Shipment.class).createUnmarshaller(),
+			            "<shipment><boxes><box>a</box><box>b</box><box>c</box></boxes></shipment>");
+			fail("UnmarshalException is expected");
+		}
+		catch (UnmarshalException e) {
+			// The exception thrown by the callback is linked:
+			assertEquals("Collection boxes exceeds the limit of 2 items",
+			            e.getLinkedException().getCause().getMessage());
+		}
+	}
+
+	@Test
+	public void testUnmarshalLimitExceededAborted() throws Exception {
+		List<ValidationEvent> events = new ArrayList<ValidationEvent>();
+		Unmarshaller unmarshaller = JAXBContext.newInstance(Shipment.class).createUnmarshaller();
+
+		unmarshaller.setEventHandler(event -> {
+			events.add(event);
+			return false;
+		});
+
+		try {
+			unmarshal(unmarshaller,
+			            "<shipment><boxes><box>a</box><box>b</box><box>c</box><box>d</box></boxes></shipment>");
+			fail("UnmarshalException is expected");
+		}
+		catch (UnmarshalException e) {
+			// Reported by the list, then by the unmarshaller:
+			assertEquals(2, events.size());
+			assertEquals("Collection boxes exceeds the limit of 2 items", events.get(0).getMessage());
+			assertEquals(ValidationEvent.FATAL_ERROR, events.get(0).getSeverity());
+		}
+	}
+
+	@Test
+	public void testUnmarshalLimitExceededIgnored() throws Exception {
+		List<ValidationEvent> events = new ArrayList<ValidationEvent>();
+		Unmarshaller unmarshaller = JAXBContext.newInstance(Shipment.class).createUnmarshaller();
+
+		unmarshaller.setEventHandler(event -> events.add(event));
+
+		Shipment shipment = unmarshal(unmarshaller,
+		            "<shipment><boxes><box>a</box><box>b</box><box>c</box><box>d</box></boxes></shipment>");
+
+		assertEquals(Arrays.asList("a", "b"), shipment.boxes);
+		// Only the first dropped element is reported:
+		assertEquals(1, events.size());
+		assertEquals(ValidationEvent.FATAL_ERROR, events.get(0).getSeverity());
+	}
+
+	private static Shipment unmarshal(Unmarshaller unmarshaller, String xml) throws Exception {
+		return (Shipment) unmarshaller.unmarshal(new StringReader(xml));
+	}
+}
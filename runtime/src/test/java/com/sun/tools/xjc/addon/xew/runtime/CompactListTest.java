@@ -0,0 +1,155 @@
+package com.sun.tools.xjc.addon.xew.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Testcases for {@link CompactList}.
+ */
+public class CompactListTest {
+
+	@Test
+	public void testInlineElements() {
+		List<String> list = new CompactList<String>();
+
+		list.add("a");
+		list.add(null);
+		list.add(0, "b");
+
+		assertEquals(Arrays.asList("b", "a", null), list);
+		assertEquals("a", list.remove(1));
+		assertEquals(Arrays.asList("b", null), list);
+		assertEquals("b", list.set(0, "c"));
+		assertEquals(Arrays.asList("c", null), list);
+		assertEquals(Arrays.asList("c", null).hashCode(), list.hashCode());
+	}
+
+	@Test
+	public void testGrowAndTrim() {
+		CompactList<Integer> list = new CompactList<Integer>();
+
+		for (int i = 0; i < 100; i++) {
+			list.add(Integer.valueOf(i));
+		}
+
+		assertEquals(100, list.size());
+		assertEquals(Integer.valueOf(99), list.get(99));
+
+		list.subList(2, 100).clear();
+		list.trimToSize();
+
+		assertEquals(Arrays.asList(Integer.valueOf(0), Integer.valueOf(1)), list);
+
+		list.add(Integer.valueOf(2));
+		list.add(Integer.valueOf(3));
+
+		assertEquals(Arrays.asList(Integer.valueOf(0), Integer.valueOf(1), Integer.valueOf(2), Integer.valueOf(3)),
+		            list);
+	}
+
+	@Test
+	public void testCopyConstructor() {
+		assertEquals(Arrays.asList("a", "b"), new CompactList<String>(Arrays.asList("a", "b")));
+		assertEquals(Arrays.asList("a", "b", "c", "d"), new CompactList<String>(Arrays.asList("a", "b", "c", "d")));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testIndexOutOfBounds() {
+		List<String> list = new CompactList<String>(10);
+
+		list.add("a");
+		list.get(1);
+	}
+
+	@Test
+	public void testClear() {
+		List<String> list = new CompactList<String>(Arrays.asList("a", "b", "c", "d"));
+
+		list.clear();
+
+		assertEquals(0, list.size());
+		list.add("e");
+		assertEquals(Arrays.asList("e"), list);
+	}
+
+	@Test(expected = ConcurrentModificationException.class)
+	public void testFailFastIterator() {
+		List<String> list = new CompactList<String>(Arrays.asList("a", "b"));
+
+		for (Iterator<String> iter = list.iterator(); iter.hasNext();) {
+			iter.next();
+			list.add("c");
+		}
+	}
+
+	@Test
+	public void testSerialization() throws Exception {
+		CompactList<String> list = new CompactList<String>(Arrays.asList("a", null, "c", "d"));
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+
+		out.writeObject(list);
+		out.close();
+
+		Object copy = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+		assertEquals(list, copy);
+	}
+
+	/**
+	 * Random sequence of operations should give the same result as for {@link ArrayList}.
+	 */
+	@Test
+	public void testSameAsArrayList() {
+		Random random = new Random(42);
+		CompactList<Integer> list = new CompactList<Integer>();
+		List<Integer> expected = new ArrayList<Integer>();
+
+		for (int i = 0; i < 10000; i++) {
+			Integer value = Integer.valueOf(random.nextInt(100));
+			int operation = random.nextInt(10);
+
+			if (operation < 4 || expected.isEmpty()) {
+				list.add(value);
+				expected.add(value);
+			}
+			else if (operation < 6) {
+				int index = random.nextInt(expected.size() + 1);
+
+				list.add(index, value);
+				expected.add(index, value);
+			}
+			else if (operation < 9) {
+				int index = random.nextInt(expected.size());
+
+				assertEquals(expected.remove(index), list.remove(index));
+			}
+			else {
+				list.trimToSize();
+			}
+
+			assertEquals(expected, list);
+		}
+
+		try {
+			list.get(expected.size());
+			fail("IndexOutOfBoundsException is expected");
+		}
+		catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+	}
+}
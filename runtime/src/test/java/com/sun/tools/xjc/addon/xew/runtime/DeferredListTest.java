@@ -0,0 +1,114 @@
+package com.sun.tools.xjc.addon.xew.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.namespace.QName;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlAttribute;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
+
+import org.junit.Test;
+
+/**
+ * Testcases for {@link DeferredList} and {@link DeferredListAdapter}.
+ */
+public class DeferredListTest {
+
+	@XmlAccessorType(XmlAccessType.FIELD)
+	public static class Item {
+
+		@XmlAttribute
+		public String id;
+	}
+
+	public static class ItemsAdapter extends DeferredListAdapter<Item> {
+
+		public ItemsAdapter() {
+			super(Item.class, new QName("urn:order", "item"));
+		}
+	}
+
+	public static class NotesAdapter extends DeferredListAdapter<String> {
+
+		public NotesAdapter() {
+			super(String.class, new QName("urn:order", "note"));
+		}
+	}
+
+	@XmlRootElement(name = "order", namespace = "urn:order")
+	@XmlAccessorType(XmlAccessType.FIELD)
+	public static class Order {
+
+		@XmlElement(name = "items", namespace = "urn:order")
+		@XmlJavaTypeAdapter(ItemsAdapter.class)
+		public List<Item> items;
+
+		@XmlElement(name = "notes", namespace = "urn:order")
+		@XmlJavaTypeAdapter(NotesAdapter.class)
+		public List<String> notes;
+	}
+
+	private static final String XML = "<o:order xmlns:o=\"urn:order\"><o:items><o:item id=\"1\"/>\n<o:item id=\"2\"/>"
+	            + "</o:items><o:notes><o:note>a</o:note><o:note>b</o:note></o:notes></o:order>";
+
+	@Test
+	public void testNotAccessed() throws Exception {
+		JAXBContext context = JAXBContext.newInstance(Order.class);
+		Order order = (Order) context.createUnmarshaller().unmarshal(new StringReader(XML));
+
+		assertTrue(order.items instanceof DeferredList);
+		assertEquals(2, order.items.size());
+		assertFalse(((DeferredList<Item>) order.items).isParsed());
+
+		Order copy = (Order) context.createUnmarshaller().unmarshal(new StringReader(marshal(context, order)));
+
+		assertEquals("2", copy.items.get(1).id);
+		assertEquals(Arrays.asList("a", "b"), copy.notes);
+	}
+
+	@Test
+	public void testModified() throws Exception {
+		JAXBContext context = JAXBContext.newInstance(Order.class);
+		Order order = (Order) context.createUnmarshaller().unmarshal(new StringReader(XML));
+
+		assertEquals("1", order.items.get(0).id);
+		assertTrue(((DeferredList<Item>) order.items).isParsed());
+
+		order.items.remove(0);
+		order.notes.add("c");
+
+		Order copy = (Order) context.createUnmarshaller().unmarshal(new StringReader(marshal(context, order)));
+
+		assertEquals(1, copy.items.size());
+		assertEquals("2", copy.items.get(0).id);
+		assertEquals(Arrays.asList("a", "b", "c"), copy.notes);
+	}
+
+	@Test
+	public void testContext() throws Exception {
+		assertSame(DeferredList.getContext(Item.class), DeferredList.getContext(Item.class));
+	}
+
+	private static String marshal(JAXBContext context, Object object) throws Exception {
+		Marshaller marshaller = context.createMarshaller();
+		StringWriter writer = new StringWriter();
+
+		marshaller.marshal(object, writer);
+
+		return writer.toString();
+	}
+}
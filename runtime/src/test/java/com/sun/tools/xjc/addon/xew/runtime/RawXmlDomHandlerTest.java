@@ -0,0 +1,71 @@
+package com.sun.tools.xjc.addon.xew.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.annotation.XmlAnyElement;
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+import org.junit.Test;
+import org.w3c.dom.Element;
+
+/**
+ * Testcases for {@link RawXmlDomHandler}.
+ */
+public class RawXmlDomHandlerTest {
+
+	@XmlRootElement(name = "root")
+	public static class Root {
+
+		@XmlAnyElement(RawXmlDomHandler.class)
+		public List<Element> any = new ArrayList<Element>();
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		JAXBContext context = JAXBContext.newInstance(Root.class);
+		String xml = "<root xmlns:p=\"urn:p\"><p:a x=\"1\">text<b/></p:a><c>&lt;</c></root>";
+
+		Root root = (Root) context.createUnmarshaller().unmarshal(new StringReader(xml));
+
+		assertEquals(2, root.any.size());
+
+		RawXml first = (RawXml) root.any.get(0);
+		RawXml second = (RawXml) root.any.get(1);
+
+		assertTrue(first.getXml(), first.getXml().startsWith("<p:a"));
+		assertTrue(first.getXml(), first.getXml().contains("xmlns:p=\"urn:p\""));
+		assertFalse(first.isParsed());
+
+		assertEquals("urn:p", first.getNamespaceURI());
+		assertEquals("a", first.getLocalName());
+		assertEquals("1", first.getAttribute("x"));
+		assertTrue(first.isParsed());
+
+		first.setAttribute("x", "2");
+
+		Root copy = (Root) context.createUnmarshaller().unmarshal(new StringReader(marshal(context, root)));
+
+		assertEquals("2", copy.any.get(0).getAttribute("x"));
+		assertEquals(second.getXml(), ((RawXml) copy.any.get(1)).getXml());
+		assertEquals("<", copy.any.get(1).getTextContent());
+	}
+
+	private static String marshal(JAXBContext context, Object object) throws Exception {
+		Marshaller marshaller = context.createMarshaller();
+		StringWriter writer = new StringWriter();
+
+		marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+		marshaller.marshal(object, writer);
+
+		return writer.toString();
+	}
+}
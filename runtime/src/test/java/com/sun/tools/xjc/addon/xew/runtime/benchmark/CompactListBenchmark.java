@@ -0,0 +1,104 @@
+package com.sun.tools.xjc.addon.xew.runtime.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.tools.xjc.addon.xew.runtime.CompactList;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares {@link CompactList} with {@link ArrayList} (created the same way as by unmarshaller) for typical sizes of
+ * wrapped collections. Run with {@code -prof gc}: the {@code gc.alloc.rate.norm} metric shows the number of bytes
+ * allocated per list, which is the memory footprint of the list.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompactListBenchmark {
+
+	@Param({ "0", "1", "3", "8", "64" })
+	private int			  size;
+
+	/**
+	 * Elements are created once, so that only the list is allocated during the benchmark.
+	 */
+	private String[]	 values;
+
+	private List<String> arrayList;
+
+	private List<String> compactList;
+
+	@Setup
+	public void setup() {
+		values = new String[size];
+
+		for (int i = 0; i < size; i++) {
+			values[i] = String.valueOf(i);
+		}
+
+		arrayList = fill(new ArrayList<String>());
+		compactList = fill(new CompactList<String>());
+	}
+
+	private List<String> fill(List<String> list) {
+		for (String value : values) {
+			list.add(value);
+		}
+
+		return list;
+	}
+
+	@Benchmark
+	public List<String> createArrayList() {
+		return fill(new ArrayList<String>());
+	}
+
+	@Benchmark
+	public List<String> createCompactList() {
+		return fill(new CompactList<String>());
+	}
+
+	@Benchmark
+	public void iterateArrayList(Blackhole blackhole) {
+		for (String element : arrayList) {
+			blackhole.consume(element);
+		}
+	}
+
+	@Benchmark
+	public void iterateCompactList(Blackhole blackhole) {
+		for (String element : compactList) {
+			blackhole.consume(element);
+		}
+	}
+
+	@Benchmark
+	public void getArrayList(Blackhole blackhole) {
+		for (int i = 0; i < arrayList.size(); i++) {
+			blackhole.consume(arrayList.get(i));
+		}
+	}
+
+	@Benchmark
+	public void getCompactList(Blackhole blackhole) {
+		for (int i = 0; i < compactList.size(); i++) {
+			blackhole.consume(compactList.get(i));
+		}
+	}
+}
@@ -7,10 +7,12 @@ import static com.sun.tools.xjc.addon.xew.CommonUtils.getXsdDeclaration;
 import static com.sun.tools.xjc.addon.xew.CommonUtils.isHiddenClass;
 import static com.sun.tools.xjc.addon.xew.XmlElementWrapperPlugin.FACTORY_CLASS_NAME;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import com.sun.codemodel.JAnnotationUse;
@@ -52,6 +54,11 @@ public final class Candidate {
 	 */
 	private boolean								 markedForRemoval	  = true;
 
+	/**
+	 * Reasons why this candidate is not removed (for reporting).
+	 */
+	private final List<String>					 retentionReasons	  = new ArrayList<String>();
+
 	/**
 	 * Number of times this candidate has been substituted in the model.
 	 */
@@ -247,10 +254,18 @@ public final class Candidate {
 	}
 
 	/**
-	 * Signal that this candidate should not be removed from model on some reason.
+	 * Signal that this candidate should not be removed from model on given reason.
 	 */
-	public void unmarkForRemoval() {
+	public void unmarkForRemoval(String reason) {
 		this.markedForRemoval = false;
+		this.retentionReasons.add(reason);
+	}
+
+	/**
+	 * Reasons why this candidate has been unmarked for removal in the order they were registered.
+	 */
+	public List<String> getRetentionReasons() {
+		return retentionReasons;
 	}
 
 	@Override
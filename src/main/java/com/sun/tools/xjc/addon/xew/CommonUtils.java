@@ -4,19 +4,31 @@ import java.io.StringWriter;
 import java.io.Writer;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 import com.sun.codemodel.JAnnotatable;
+import com.sun.codemodel.JAnnotationArrayMember;
+import com.sun.codemodel.JAnnotationClassValue;
 import com.sun.codemodel.JAnnotationUse;
 import com.sun.codemodel.JAnnotationValue;
+import com.sun.codemodel.JBlock;
 import com.sun.codemodel.JClass;
+import com.sun.codemodel.JCodeModel;
 import com.sun.codemodel.JDefinedClass;
 import com.sun.codemodel.JExpr;
 import com.sun.codemodel.JExpression;
 import com.sun.codemodel.JFormatter;
 import com.sun.codemodel.JGenerable;
+import com.sun.codemodel.JPackage;
+import com.sun.codemodel.JStatement;
 import com.sun.codemodel.JType;
+import com.sun.codemodel.JTypeVar;
 import com.sun.codemodel.JVar;
 import com.sun.tools.xjc.model.CPropertyInfo;
 import com.sun.tools.xjc.reader.xmlschema.bindinfo.BIDeclaration;
@@ -32,6 +44,18 @@ import org.apache.commons.lang3.reflect.FieldUtils;
 
 public final class CommonUtils {
 
+	/**
+	 * Default capacity of {@link ArrayList}.
+	 */
+	private static final int		DEFAULT_COLLECTION_CAPACITY	= 10;
+
+	/**
+	 * Maximum capacity derived from XSD: collections with more mandatory items grow as usual.
+	 */
+	private static final int		MAX_COLLECTION_CAPACITY		= 1024;
+
+	private static final BigInteger	MAX_INT						= BigInteger.valueOf(Integer.MAX_VALUE);
+
 	/**
 	 * Returns {@code true} if given class is hidden, that is not generated and saved by XJC. These are for example
 	 * instances of {@code JCodeModel.JReferencedClass} (JVM-wide classes) or instances of {@link JDefinedClass} with
@@ -50,6 +74,41 @@ public final class CommonUtils {
 		return type instanceof JClass && ((JClass) type).getTypeParameters().contains(classToCheck);
 	}
 
+	/**
+	 * Returns all classes (including inner classes) which are going to be written by XJC, sorted by binary name.
+	 * Hidden classes are not included.
+	 */
+	public static List<JDefinedClass> getGeneratedClasses(JCodeModel codeModel) {
+		List<JDefinedClass> classes = new ArrayList<JDefinedClass>();
+
+		for (Iterator<JPackage> iter = codeModel.packages(); iter.hasNext();) {
+			for (Iterator<JDefinedClass> classIter = iter.next().classes(); classIter.hasNext();) {
+				addGeneratedClass(classes, classIter.next());
+			}
+		}
+
+		Collections.sort(classes, new Comparator<JDefinedClass>() {
+			@Override
+			public int compare(JDefinedClass o1, JDefinedClass o2) {
+				return o1.binaryName().compareTo(o2.binaryName());
+			}
+		});
+
+		return classes;
+	}
+
+	private static void addGeneratedClass(List<JDefinedClass> classes, JDefinedClass clazz) {
+		if (clazz.isHidden()) {
+			return;
+		}
+
+		classes.add(clazz);
+
+		for (Iterator<JDefinedClass> iter = clazz.classes(); iter.hasNext();) {
+			addGeneratedClass(classes, iter.next());
+		}
+	}
+
 	//
 	// Annotation helpers.
 	//
@@ -98,6 +157,13 @@ public final class CommonUtils {
 			return null;
 		}
 
+		// Class values (like "type = T.class") are referred directly, so there is no need to serialize them
+		// (enum constants are also stored as class values, but have a value):
+		if (annotationValue instanceof JAnnotationClassValue
+		            && ((JAnnotationClassValue) annotationValue).value() == null) {
+			return ((JAnnotationClassValue) annotationValue).type().dotclass();
+		}
+
 		// FIXME: Pending for https://java.net/jira/browse/JAXB-878
 		try {
 			// In most cases the value is some expression...
@@ -110,6 +176,45 @@ public final class CommonUtils {
 		}
 	}
 
+	/**
+	 * Returns all classes which are used as values of annotation members (like
+	 * <code>@XmlElements({ @XmlElement(name = "a", type = A.class), ... })</code>) of the given {@code annotatable},
+	 * including members of nested annotations.
+	 */
+	public static List<JClass> getAnnotationClassValues(JAnnotatable annotatable) {
+		List<JClass> classes = new ArrayList<JClass>();
+
+		for (JAnnotationUse annotation : annotatable.annotations()) {
+			addAnnotationClassValues(classes, annotation);
+		}
+
+		return classes;
+	}
+
+	private static void addAnnotationClassValues(List<JClass> classes, JAnnotationValue annotationValue) {
+		if (annotationValue instanceof JAnnotationClassValue) {
+			// Enum constants (like "XmlNsForm.QUALIFIED") are not class values:
+			if (((JAnnotationClassValue) annotationValue).value() == null) {
+				classes.add(((JAnnotationClassValue) annotationValue).type());
+			}
+		}
+		else if (annotationValue instanceof JAnnotationArrayMember) {
+			for (JAnnotationValue value : ((JAnnotationArrayMember) annotationValue).annotations2()) {
+				addAnnotationClassValues(classes, value);
+			}
+		}
+		else if (annotationValue instanceof JAnnotationUse) {
+			// FIXME: Workaround for https://java.net/jira/browse/JAXB-1040:
+			Map<String, JAnnotationValue> memberValues = getPrivateField(annotationValue, "memberValues");
+
+			if (memberValues != null) {
+				for (JAnnotationValue value : memberValues.values()) {
+					addAnnotationClassValues(classes, value);
+				}
+			}
+		}
+	}
+
 	/**
 	 * Append the given {@code annotation} to list of annotations for the given {@code field}.
 	 */
@@ -235,6 +340,140 @@ public final class CommonUtils {
 		while (targetClass != null && targetClass != Object.class);
 	}
 
+	/**
+	 * Add {@code synchronized (lock) { ... }} statement to the given block. Code model does not support synchronized
+	 * blocks.
+	 * 
+	 * @return the body of synchronized block
+	 */
+	public static JBlock synchronizedBlock(JBlock block, final JExpression lock) {
+		final JBlock body = new JBlock();
+
+		block.add(new JStatement() {
+			@Override
+			public void state(JFormatter f) {
+				f.p("synchronized (").g(lock).p(')').g(body).nl();
+			}
+		});
+
+		return body;
+	}
+
+	/**
+	 * Returns the wildcard type {@code ? super T} for the given bound {@code T}. Code model supports only
+	 * {@code ? extends T} (see {@link JClass#wildcard()}).
+	 */
+	public static JClass wildcardSuper(final JClass bound) {
+		return new JClass(bound.owner()) {
+			@Override
+			public String name() {
+				return "? super " + bound.name();
+			}
+
+			@Override
+			public String fullName() {
+				return "? super " + bound.fullName();
+			}
+
+			@Override
+			public JPackage _package() {
+				return null;
+			}
+
+			@Override
+			public JClass _extends() {
+				return null;
+			}
+
+			@Override
+			public Iterator<JClass> _implements() {
+				return Collections.<JClass> emptyList().iterator();
+			}
+
+			@Override
+			public boolean isInterface() {
+				return false;
+			}
+
+			@Override
+			public boolean isAbstract() {
+				return false;
+			}
+
+			@Override
+			protected JClass substituteParams(JTypeVar[] variables, List<JClass> bindings) {
+				return this;
+			}
+
+			@Override
+			public void generate(JFormatter f) {
+				f.p("? super").g(bound);
+			}
+		};
+	}
+
+	/**
+	 * Returns the initial capacity for the collection which holds the values of given property derived from XSD
+	 * particle: bounded collections which are smaller than default get the exact capacity ({@code maxOccurs}) and
+	 * collections with many mandatory items get the minimal capacity ({@code minOccurs}), which is limited to
+	 * {@value #MAX_COLLECTION_CAPACITY}.
+	 * 
+	 * @return the capacity or {@code -1} if default capacity should be used
+	 */
+	public static int getCapacityHint(CPropertyInfo propertyInfo) {
+		XSComponent schemaComponent = propertyInfo.getSchemaComponent();
+
+		if (!(schemaComponent instanceof XSParticle)) {
+			return -1;
+		}
+
+		XSParticle particle = (XSParticle) schemaComponent;
+
+		if (particle.getMinOccurs().compareTo(BigInteger.valueOf(DEFAULT_COLLECTION_CAPACITY)) > 0) {
+			return particle.getMinOccurs().min(BigInteger.valueOf(MAX_COLLECTION_CAPACITY)).intValue();
+		}
+
+		// Particle with maxOccurs="1" is repeated via enclosing model group, hence the bound is unknown:
+		if (particle.getMaxOccurs().compareTo(BigInteger.ONE) > 0
+		            && particle.getMaxOccurs().compareTo(BigInteger.valueOf(DEFAULT_COLLECTION_CAPACITY)) < 0) {
+			return particle.getMaxOccurs().intValue();
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Returns the value of {@code minOccurs} of XSD particle of given property or {@code 0} if property is not bound to
+	 * particle.
+	 */
+	public static int getMinOccurs(CPropertyInfo propertyInfo) {
+		XSComponent schemaComponent = propertyInfo.getSchemaComponent();
+
+		if (!(schemaComponent instanceof XSParticle)) {
+			return 0;
+		}
+
+		return ((XSParticle) schemaComponent).getMinOccurs().min(MAX_INT).intValue();
+	}
+
+	/**
+	 * Returns the value of {@code maxOccurs} of XSD particle of given property or {@code -1} if the number of items is
+	 * unbounded or unknown.
+	 */
+	public static int getMaxOccurs(CPropertyInfo propertyInfo) {
+		XSComponent schemaComponent = propertyInfo.getSchemaComponent();
+
+		if (!(schemaComponent instanceof XSParticle)) {
+			return -1;
+		}
+
+		BigInteger maxOccurs = ((XSParticle) schemaComponent).getMaxOccurs();
+
+		// Particle with maxOccurs="1" is repeated via enclosing model group, hence the bound is unknown. The bound which
+		// does not fit into int is effectively unbounded:
+		return maxOccurs.compareTo(BigInteger.ONE) > 0 && maxOccurs.compareTo(MAX_INT) <= 0 ? maxOccurs.intValue() : -1;
+	}
+
 	/**
 	 * Returns XSD declaration of given property.
 	 */
@@ -25,8 +25,13 @@ import static com.sun.tools.xjc.addon.xew.CommonUtils.addAnnotation;
 import static com.sun.tools.xjc.addon.xew.CommonUtils.copyFields;
 import static com.sun.tools.xjc.addon.xew.CommonUtils.generableToString;
 import static com.sun.tools.xjc.addon.xew.CommonUtils.getAnnotation;
+import static com.sun.tools.xjc.addon.xew.CommonUtils.getAnnotationClassValues;
 import static com.sun.tools.xjc.addon.xew.CommonUtils.getAnnotationMember;
 import static com.sun.tools.xjc.addon.xew.CommonUtils.getAnnotationMemberExpression;
+import static com.sun.tools.xjc.addon.xew.CommonUtils.getCapacityHint;
+import static com.sun.tools.xjc.addon.xew.CommonUtils.getMaxOccurs;
+import static com.sun.tools.xjc.addon.xew.CommonUtils.getMinOccurs;
+import static com.sun.tools.xjc.addon.xew.CommonUtils.getGeneratedClasses;
 import static com.sun.tools.xjc.addon.xew.CommonUtils.getPrivateField;
 import static com.sun.tools.xjc.addon.xew.CommonUtils.getXsdDeclaration;
 import static com.sun.tools.xjc.addon.xew.CommonUtils.hasPropertyNameCustomization;
@@ -34,17 +39,44 @@ import static com.sun.tools.xjc.addon.xew.CommonUtils.isHiddenClass;
 import static com.sun.tools.xjc.addon.xew.CommonUtils.isListedAsParametrisation;
 import static com.sun.tools.xjc.addon.xew.CommonUtils.removeAnnotation;
 import static com.sun.tools.xjc.addon.xew.CommonUtils.setPrivateField;
+import static com.sun.tools.xjc.addon.xew.CommonUtils.synchronizedBlock;
+import static com.sun.tools.xjc.addon.xew.CommonUtils.wildcardSuper;
 
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Queue;
 import java.util.Set;
-
+import java.util.SortedSet;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import jakarta.xml.bind.DataBindingException;
 import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.Unmarshaller;
 import jakarta.xml.bind.annotation.XmlAnyElement;
 import jakarta.xml.bind.annotation.XmlElement;
 import jakarta.xml.bind.annotation.XmlElementDecl;
@@ -53,43 +85,67 @@ import jakarta.xml.bind.annotation.XmlElementRefs;
 import jakarta.xml.bind.annotation.XmlElementWrapper;
 import jakarta.xml.bind.annotation.XmlElements;
 import jakarta.xml.bind.annotation.XmlMixed;
+import jakarta.xml.bind.annotation.XmlRegistry;
+import jakarta.xml.bind.annotation.XmlRootElement;
 import jakarta.xml.bind.annotation.XmlSchema;
+import jakarta.xml.bind.annotation.XmlTransient;
 import jakarta.xml.bind.annotation.XmlType;
+import jakarta.xml.bind.annotation.adapters.XmlAdapter;
 import jakarta.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
 import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
 
-import com.sun.codemodel.JAnnotatable;
+import com.sun.codemodel.ClassType;
 import com.sun.codemodel.JAnnotationArrayMember;
 import com.sun.codemodel.JAnnotationUse;
 import com.sun.codemodel.JAnnotationValue;
+import com.sun.codemodel.JBlock;
+import com.sun.codemodel.JCatchBlock;
 import com.sun.codemodel.JClass;
+import com.sun.codemodel.JClassAlreadyExistsException;
 import com.sun.codemodel.JClassContainer;
+import com.sun.codemodel.JConditional;
 import com.sun.codemodel.JCodeModel;
 import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JDocComment;
 import com.sun.codemodel.JExpr;
 import com.sun.codemodel.JExpression;
+import com.sun.codemodel.JFieldRef;
 import com.sun.codemodel.JFieldVar;
+import com.sun.codemodel.JForEach;
 import com.sun.codemodel.JInvocation;
 import com.sun.codemodel.JJavaName;
 import com.sun.codemodel.JMethod;
 import com.sun.codemodel.JMod;
+import com.sun.codemodel.JOp;
 import com.sun.codemodel.JPackage;
+import com.sun.codemodel.JTryBlock;
+import com.sun.codemodel.JType;
+import com.sun.codemodel.JVar;
 import com.sun.tools.xjc.Options;
 import com.sun.tools.xjc.addon.xew.config.AbstractConfigurablePlugin;
 import com.sun.tools.xjc.addon.xew.config.ClassConfiguration;
 import com.sun.tools.xjc.addon.xew.config.CommonConfiguration;
+import com.sun.tools.xjc.model.CAttributePropertyInfo;
+import com.sun.tools.xjc.model.CClassInfo;
 import com.sun.tools.xjc.model.CElementPropertyInfo;
 import com.sun.tools.xjc.model.CElementPropertyInfo.CollectionMode;
 import com.sun.tools.xjc.model.CPropertyInfo;
 import com.sun.tools.xjc.model.CReferencePropertyInfo;
+import com.sun.tools.xjc.model.CTypeRef;
 import com.sun.tools.xjc.outline.ClassOutline;
 import com.sun.tools.xjc.outline.FieldOutline;
 import com.sun.tools.xjc.outline.Outline;
 import com.sun.tools.xjc.reader.Ring;
 import com.sun.xml.xsom.XSComponent;
 import com.sun.xml.xsom.XSDeclaration;
+import com.sun.xml.xsom.XSElementDecl;
+import com.sun.xml.xsom.XSIdentityConstraint;
 
 import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.glassfish.jaxb.core.api.impl.NameConverter;
 import org.jvnet.jaxb2_commons.util.CustomizationUtils;
 
@@ -109,6 +165,10 @@ public class XmlElementWrapperPlugin extends AbstractConfigurablePlugin {
 
 	static final String FACTORY_CLASS_NAME = "ObjectFactory";
 
+	private static final String BEFORE_UNMARSHAL_METHOD_NAME = "beforeUnmarshal";
+
+	private static final String AFTER_UNMARSHAL_METHOD_NAME = "afterUnmarshal";
+
 	@Override
 	protected void runInternal(Outline outline) throws ClassNotFoundException, IOException {
 		final JCodeModel codeModel = outline.getCodeModel();
@@ -140,10 +200,34 @@ public class XmlElementWrapperPlugin extends AbstractConfigurablePlugin {
 		            + ObjectUtils.defaultIfNull(globalConfiguration.getControlFileName(), "<none>"));
 		writeSummary("  Summary file         : "
 		            + ObjectUtils.defaultIfNull(globalConfiguration.getSummaryFileName(), "<none>"));
+		writeSummary("  Reflection config    : "
+		            + ObjectUtils.defaultIfNull(globalConfiguration.getReflectionConfigFileName(), "<none>"));
+		writeSummary("  Class list           : "
+		            + ObjectUtils.defaultIfNull(globalConfiguration.getClassListFileName(), "<none>"));
 		writeSummary("  Instantiation mode   : " + globalConfiguration.getInstantiationMode());
-		writeSummary("  Collection impl      : " + globalConfiguration.getCollectionImplClass().getName());
-		writeSummary("  Collection interface : " + globalConfiguration.getCollectionInterfaceClass().getName());
+		writeSummary("  Collection impl      : " + globalConfiguration.getCollectionImplClassName());
+		writeSummary("  Collection interface : " + globalConfiguration.getCollectionInterfaceClassName());
+		writeSummary("  Collection factory   : "
+		            + ObjectUtils.defaultIfNull(globalConfiguration.getCollectionFactory(), "<none>"));
+		writeSummary("  Capacity             : "
+		            + ObjectUtils.defaultIfNull(globalConfiguration.getCapacity(), "<from schema>"));
+		writeSummary("  Compact collection   : " + (globalConfiguration.getCompactThreshold() == null ? "<none>"
+		            : globalConfiguration.getCompactCollectionClassName() + " for maxOccurs <= "
+		                        + globalConfiguration.getCompactThreshold()));
+		writeSummary("  Limit                : " + (globalConfiguration.getLimit() == null ? "<none>"
+		            : globalConfiguration.getLimit().intValue() == Integer.MAX_VALUE ? "<from schema>"
+		                        : globalConfiguration.getLimit()));
 		writeSummary("  Plural form          : " + globalConfiguration.isApplyPluralForm());
+		writeSummary("  Null-safe accessors  : " + globalConfiguration.isGenerateAccessors());
+		writeSummary("  Unmodifiable         : " + globalConfiguration.isUnmodifiable());
+		writeSummary("  Primitive arrays     : " + globalConfiguration.isPrimitiveArrays());
+		writeSummary("  Unwrap element refs  : " + globalConfiguration.isUnwrapElementRef());
+		writeSummary("  Trim                 : " + globalConfiguration.isTrim());
+		writeSummary("  Index                : " + globalConfiguration.isIndex());
+		writeSummary("  Raw wildcard XML     : " + globalConfiguration.isRawAny());
+		writeSummary("  Streaming reader     : " + globalConfiguration.isStreamReader());
+		writeSummary("  Streaming writer     : " + globalConfiguration.isStreamWriter());
+		writeSummary("  Deferred parsing     : " + globalConfiguration.isDeferred());
 		writeSummary("");
 
 		// Visit all classes generated by JAXB and find candidate classes for transformation.
@@ -158,7 +242,7 @@ public class XmlElementWrapperPlugin extends AbstractConfigurablePlugin {
 
 			if (globalConfiguration.isClassIncluded(candidate.getClassName())) {
 				if (globalConfiguration.isClassUnmarkedForRemoval(candidate.getClassName())) {
-					candidate.unmarkForRemoval();
+					candidate.unmarkForRemoval("unmarked for removal in control file");
 					writeSummary("\t[!]: " + candidate.getClassName());
 				}
 				else {
@@ -179,6 +263,12 @@ public class XmlElementWrapperPlugin extends AbstractConfigurablePlugin {
 
 		int modificationCount = 0;
 
+		// Classes which limit collections before unmarshalling:
+		Set<JDefinedClass> preProcessingClasses = new LinkedHashSet<JDefinedClass>();
+
+		// Classes which trim or freeze unmarshalled collections:
+		Set<JDefinedClass> postProcessingClasses = new LinkedHashSet<JDefinedClass>();
+
 		// Visit all classes again to check if the candidate is not eligible for removal:
 		// * If there are classes that extend the candidate
 		// * If there are class fields, that refer the candidate by e.g. @XmlElementRef annotation
@@ -195,7 +285,7 @@ public class XmlElementWrapperPlugin extends AbstractConfigurablePlugin {
 			if (parentCandidate != null) {
 				logger.debug("Candidate " + parentCandidate.getClassName() + " is a parent of " + targetClass.name()
 				            + " and hence won't be removed.");
-				parentCandidate.unmarkForRemoval();
+				parentCandidate.unmarkForRemoval("is a parent of " + targetClass.fullName());
 			}
 
 			// Visit all fields in this class.
@@ -215,23 +305,32 @@ public class XmlElementWrapperPlugin extends AbstractConfigurablePlugin {
 				for (Candidate c : candidatesMap.values()) {
 					// Skip fields with basic types as for example any class can be casted to Object.
 					if (fieldType.isAssignableFrom(c.getClazz()) && !isHiddenClass(fieldType)) {
-						// If the given field has type T, it cannot be also in the list of parametrisations (e.g. T<T>).
 						candidate = c;
 						break;
 					}
-					// If the candidate T is referred from list of parametrisations (e.g. List<T>), it cannot be removed.
-					// However field substitutions will take place.
-					else if (isListedAsParametrisation(c.getClazz(), fieldType)) {
-						logger.debug("Candidate " + c.getClassName() + " is listed as parametrisation of "
-						            + targetClass.fullName() + "#" + fieldName + " and hence won't be removed.");
-						c.unmarkForRemoval();
-					}
 				}
 
 				final JFieldVar originalImplField = targetClass.fields().get(fieldName);
+				final String fieldReference = targetClass.fullName() + "#" + fieldName;
+
+				// If the candidate T is referred from list of parametrisations (e.g. List<T>), it cannot be removed.
+				// However field substitutions will take place.
+				for (Candidate c : getReferredCandidates(candidatesMap, fieldType.getTypeParameters())) {
+					if (c != candidate) {
+						logger.debug("Candidate " + c.getClassName() + " is listed as parametrisation of "
+						            + fieldReference + " and hence won't be removed.");
+						c.unmarkForRemoval("is listed as parametrisation of " + fieldReference);
+					}
+				}
 
 				if (candidate == null || !classConfiguration.isAnnotatable()) {
-					checkAnnotationReference(candidatesMap, originalImplField);
+					// Candidates referred from XmlElements/XmlElementRef(s) annotations of fields, which are not
+					// substituted, cannot be removed.
+					for (Candidate c : getReferredCandidates(candidatesMap, getAnnotationClassValues(originalImplField))) {
+						logger.debug("Candidate " + c.getClassName() + " is used in XmlElements/XmlElementRef of "
+						            + fieldReference + " and hence won't be removed.");
+						c.unmarkForRemoval("is used in XmlElements/XmlElementRef of " + fieldReference);
+					}
 
 					continue;
 				}
@@ -241,7 +340,16 @@ public class XmlElementWrapperPlugin extends AbstractConfigurablePlugin {
 
 				if (!fieldConfiguration.isAnnotatable()) {
 					logger.debug("Field " + fieldName + " is excluded for processing.");
-					candidate.unmarkForRemoval();
+					candidate.unmarkForRemoval("field " + fieldReference + " is excluded for processing");
+
+					continue;
+				}
+
+				// Map is bound to the candidate class via adapter, hence the candidate cannot be removed:
+				if (fieldConfiguration.getMapPropertyNames() != null
+				            && generateMapField(codeModel, outline, fieldConfiguration, targetClass, field, candidate)) {
+					candidate.unmarkForRemoval("is adapted to map in " + fieldReference);
+					modificationCount++;
 
 					continue;
 				}
@@ -259,14 +367,67 @@ public class XmlElementWrapperPlugin extends AbstractConfigurablePlugin {
 
 				List<JClass> fieldTypeParametrisations = candidate.getFieldClass().getTypeParameters();
 
+				// Items of single element reference are bound directly, saving JAXBElement instance per item:
+				ScopedElementInfo unwrappedElementInfo = fieldConfiguration.isUnwrapElementRef()
+				            ? getUnwrappableElementInfo(candidate, xmlElementRefModelClass, xmlJavaTypeAdapterModelClass)
+				            : null;
+
+				if (unwrappedElementInfo != null) {
+					logger.debug("Unwrapping element reference " + generableToString(unwrappedElementInfo.name)
+					            + "...");
+					fieldTypeParametrisations = Collections.singletonList(unwrappedElementInfo.type.boxify());
+				}
+
+				String collectionInterfaceClassName = fieldConfiguration.getCollectionInterfaceClassName();
+				boolean arrayRequested = collectionInterfaceClassName
+				            .equals(CommonConfiguration.COLLECTION_INTERFACE_ARRAY);
+
+				// Mixed content is unmarshalled into a list only:
+				if (arrayRequested && getAnnotation(candidate.getField(), xmlMixedModelClass) != null) {
+					logger.warn("Array is not applicable to mixed content field " + fieldReference + ", using "
+					            + List.class.getName() + " instead.");
+					collectionInterfaceClassName = List.class.getName();
+					arrayRequested = false;
+				}
+
 				// Create the new interface and collection classes using the specified interface and
 				// collection classes (configuration) with an element type corresponding to
 				// the element type from the collection present in the candidate class (narrowing).
-				JClass collectionInterfaceClass = codeModel.ref(fieldConfiguration.getCollectionInterfaceClass())
-				            .narrow(fieldTypeParametrisations);
-				JClass collectionImplClass = codeModel.ref(fieldConfiguration.getCollectionImplClass())
+				// Collection classes are referred by name, hence they do not need to be available on plugin classpath.
+				// Arrays are natively supported by JAXB:
+				JClass collectionInterfaceClass = arrayRequested ? fieldTypeParametrisations.get(0).array()
+				            : refClass(codeModel, collectionInterfaceClassName).narrow(fieldTypeParametrisations);
+				String collectionImplClassName = fieldConfiguration.getCollectionImplClassName();
+				int collectionCapacity = getCollectionCapacity(fieldConfiguration, candidate);
+				boolean compactCollection = false;
+
+				// Small bounded collection is substituted with compact collection, which stores few items without
+				// backing array, hence the capacity does not apply:
+				if (!arrayRequested && isCompactCollectionApplicable(fieldConfiguration, collectionInterfaceClassName,
+				            candidate)) {
+					logger.debug("Applying compact collection...");
+					collectionImplClassName = fieldConfiguration.getCompactCollectionClassName();
+					collectionCapacity = -1;
+					compactCollection = true;
+				}
+
+				JClass collectionImplClass = refClass(codeModel, collectionImplClassName)
 				            .narrow(fieldTypeParametrisations);
 
+				// Collection of boxed primitives is substituted with primitive array, which is natively supported by
+				// JAXB. Unmodifiable option has precedence, as the array cannot be protected from modification:
+				JClass primitiveArrayClass = fieldConfiguration.isPrimitiveArrays()
+				            && !fieldConfiguration.isUnmodifiable()
+				                        ? getPrimitiveArrayClass(codeModel, candidate, fieldTypeParametrisations.get(0))
+				                        : null;
+
+				if (primitiveArrayClass != null) {
+					logger.debug("Applying primitive array " + primitiveArrayClass.fullName() + "...");
+					collectionInterfaceClass = primitiveArrayClass;
+				}
+
+				boolean arrayField = arrayRequested || primitiveArrayClass != null;
+
 				boolean pluralFormWasApplied = false;
 
 				// Apply the plural form if there are no customizations. Assuming that customization is correct as may define the
@@ -306,11 +467,29 @@ public class XmlElementWrapperPlugin extends AbstractConfigurablePlugin {
 				// Transform the field accordingly.
 				originalImplField.type(collectionInterfaceClass);
 
+				CommonConfiguration.InstantiationMode instantiationMode = fieldConfiguration.getInstantiationMode();
+
+				if (instantiationMode == CommonConfiguration.InstantiationMode.AUTO) {
+					instantiationMode = getAutoInstantiationMode(
+					            getAnnotation(originalImplField, xmlElementModelClass), candidate);
+					logger.debug("Instantiation mode for " + fieldReference + " is " + instantiationMode);
+				}
+
+				String unmodifiableMethodName = fieldConfiguration.isUnmodifiable()
+				            ? getUnmodifiableCollectionMethodName(fieldConfiguration) : null;
+
+				// Unmodifiable collection is never created by the class itself: unmarshaller fills a new mutable
+				// collection, which is frozen afterwards. Array is created by unmarshaller as well.
+				if (unmodifiableMethodName != null || arrayField) {
+					instantiationMode = CommonConfiguration.InstantiationMode.NONE;
+				}
+
 				// If instantiation is specified to be "early", add code for creating new instance of the collection class.
-				if (fieldConfiguration.getInstantiationMode() == CommonConfiguration.InstantiationMode.EARLY) {
+				if (instantiationMode == CommonConfiguration.InstantiationMode.EARLY) {
 					logger.debug("Applying EARLY instantiation...");
-					// GENERATED CODE: ... fieldName = new C<T>();
-					originalImplField.init(JExpr._new(collectionImplClass));
+					// GENERATED CODE: ... fieldName = new C<T>(capacity);
+					originalImplField.init(
+					            newCollection(codeModel, fieldConfiguration, collectionImplClass, collectionCapacity));
 				}
 
 				// Annotate the field with the @XmlElementWrapper annotation using the original field name.
@@ -356,7 +535,8 @@ public class XmlElementWrapperPlugin extends AbstractConfigurablePlugin {
 				        xmlElementRefModelClass, xmlElementRefsModelClass, xmlElementsModelClass }) {
 					JAnnotationUse annotation = getAnnotation(candidate.getField(), annotationModelClass);
 
-					if (annotation != null) {
+					if (annotation != null && !(unwrappedElementInfo != null
+					            && annotationModelClass == xmlElementRefModelClass)) {
 						if (candidate.getFieldTargetNamespace() != null) {
 							JAnnotationArrayMember annotationArrayMember = (JAnnotationArrayMember) getAnnotationMember(
 							            annotation, "value");
@@ -372,11 +552,33 @@ public class XmlElementWrapperPlugin extends AbstractConfigurablePlugin {
 
 						xmlElementInfoWasTransferred = true;
 
-						addAnnotation(originalImplField, annotation);
+						// Wildcard items are captured as raw XML text, unless the handler is already customized:
+						if (annotationModelClass == xmlAnyElementModelClass && fieldConfiguration.isRawAny()
+						            && getAnnotationMember(annotation, "value") == null) {
+							logger.debug("Capturing wildcard items of " + fieldReference + " as raw XML...");
+
+							// GENERATED CODE: @XmlAnyElement(value = RawXmlDomHandler.class, lax = ...)
+							JAnnotationUse rawAnyAnnotation = originalImplField.annotate(xmlAnyElementModelClass);
+							rawAnyAnnotation.param("value",
+							            codeModel.ref(CommonConfiguration.RAW_XML_DOM_HANDLER_CLASS_NAME));
+
+							JExpression lax = getAnnotationMemberExpression(annotation, "lax");
+							if (lax != null) {
+								rawAnyAnnotation.param("lax", lax);
+							}
+						}
+						else {
+							addAnnotation(originalImplField, annotation);
+						}
 					}
 				}
 
-				if (!xmlElementInfoWasTransferred) {
+				if (unwrappedElementInfo != null) {
+					// GENERATED CODE: @XmlElement(name = "...", namespace = "...")
+					originalImplField.annotate(xmlElementModelClass).param("name", unwrappedElementInfo.name)
+					            .param("namespace", unwrappedElementInfo.namespace);
+				}
+				else if (!xmlElementInfoWasTransferred) {
 					// Annotate the field with the @XmlElement annotation using the field name from the wrapped type as name.
 					// We cannot just re-use the same annotation object instance, as for example, we need to set XML name and this
 					// will impact the candidate field annotation in case candidate is unmarked from removal.
@@ -402,8 +604,9 @@ public class XmlElementWrapperPlugin extends AbstractConfigurablePlugin {
 						xmlElementAnnotation.param("namespace", candidate.getFieldTargetNamespace());
 					}
 
+					// Type of primitive array items is implied:
 					JExpression type = getAnnotationMemberExpression(xmlElementCandidateAnnotation, "type");
-					if (type != null) {
+					if (type != null && primitiveArrayClass == null) {
 						xmlElementAnnotation.param("type", type);
 					}
 
@@ -473,38 +676,207 @@ public class XmlElementWrapperPlugin extends AbstractConfigurablePlugin {
 				setPrivateField(field, "prop", propertyInfoClone);
 				setPrivateField(field, "exposedType", collectionInterfaceClass);
 
+				// Skipped field is not bound, so unmarshaller discards the wrapper subtree without creating the items:
+				boolean skippedField = fieldConfiguration.isSkip()
+				            || globalConfiguration.isClassSkipped(candidate.getClassName());
+
+				if (skippedField) {
+					logger.debug("Applying skipping...");
+					skipField(targetClass, originalImplField, xmlTypeModelClass, fieldName);
+					writeSummary("\tSkipping field [" + fieldReference + "] on unmarshalling");
+				}
+
+				// Deferred items are unmarshalled by declared type on first access:
+				boolean deferredField = false;
+
+				if (fieldConfiguration.isDeferred() && !skippedField) {
+					if (arrayField || unmodifiableMethodName != null || adapterAnnotation != null
+					            || (xmlElementInfoWasTransferred && unwrappedElementInfo == null)
+					            || !collectionInterfaceClassName.equals(List.class.getName())) {
+						logger.warn("Deferred parsing is not applicable to " + fieldReference
+						            + " as it is not a list of items bound by type.");
+					}
+					else {
+						deferredField = generateDeferredField(codeModel, targetClass, originalImplField,
+						            xmlElementWrapperAnnotation, candidate.getFieldPropertyInfo(), fieldName,
+						            propertyName, fieldTypeParametrisations.get(0));
+					}
+				}
+
 				// Add a new getter method returning the (wrapped) field added.
 				// GENERATED CODE: public I<T> getFieldName() { ... return fieldName; }
 				JMethod getterMethod = targetClass.method(JMod.PUBLIC, collectionInterfaceClass, "get" + propertyName);
 
-				if (fieldConfiguration.getInstantiationMode() == CommonConfiguration.InstantiationMode.LAZY) {
+				if (instantiationMode == CommonConfiguration.InstantiationMode.LAZY) {
 					logger.debug("Applying LAZY instantiation...");
-					// GENERATED CODE: if (fieldName == null) fieldName = new C<T>();
+					// GENERATED CODE: if (fieldName == null) fieldName = new C<T>(capacity);
 					getterMethod.body()._if(JExpr.ref(fieldName).eq(JExpr._null()))._then().assign(JExpr.ref(fieldName),
-					            JExpr._new(collectionImplClass));
+					            newCollection(codeModel, fieldConfiguration, collectionImplClass, collectionCapacity));
+				}
+
+				if (instantiationMode == CommonConfiguration.InstantiationMode.LAZY_CONCURRENT) {
+					logger.debug("Applying LAZY_CONCURRENT instantiation...");
+					setPrivateField(originalImplField.mods(), "mods",
+					            Integer.valueOf(originalImplField.mods().getValue() | JMod.VOLATILE));
+
+					// GENERATED CODE: I<T> result = this.fieldName;
+					//                 if (result == null) { synchronized (this) { result = this.fieldName;
+					//                     if (result == null) { this.fieldName = result = new C<T>(capacity); } } }
+					//                 return result;
+					JFieldRef fieldRef = JExpr._this().ref(fieldName);
+					JVar result = getterMethod.body().decl(collectionInterfaceClass, "result", fieldRef);
+					JBlock lockedBlock = synchronizedBlock(
+					            getterMethod.body()._if(result.eq(JExpr._null()))._then(), JExpr._this());
+
+					lockedBlock.assign(result, fieldRef);
+					lockedBlock._if(result.eq(JExpr._null()))._then().assign(fieldRef, JExpr.assign(result,
+					            newCollection(codeModel, fieldConfiguration, collectionImplClass, collectionCapacity)));
+					getterMethod.body()._return(result);
+
+					getterMethod.javadoc().add("The collection is created on first access and is safely published"
+					            + " to other threads.");
+				}
+				else if (unmodifiableMethodName != null) {
+					logger.debug("Applying unmodifiable collection...");
+					// GENERATED CODE: if (fieldName == null) return Collections.emptyList(); return fieldName;
+					getterMethod.body()._if(JExpr.ref(fieldName).eq(JExpr._null()))._then()._return(codeModel
+					            .ref(Collections.class)
+					            .staticInvoke(getEmptyCollectionMethodName(
+					                        fieldConfiguration.getCollectionInterfaceClassName())));
+					getterMethod.body()._return(JExpr.ref(fieldName));
+
+					getterMethod.javadoc().add("The returned collection is unmodifiable and never {@code null}.");
+				}
+				else {
+					// GENERATED CODE: return "fieldName";
+					getterMethod.body()._return(JExpr.ref(fieldName));
 				}
 
-				// GENERATED CODE: return "fieldName";
-				getterMethod.body()._return(JExpr.ref(fieldName));
+				if (deferredField) {
+					getterMethod.javadoc().add("Unmarshalled items are parsed on first access of the collection.");
+				}
+
+				// Unmarshaller drops the items beyond the limit. The items are copied to the configured collection
+				// before it is trimmed or frozen:
+				int collectionLimit = getCollectionLimit(fieldConfiguration, candidate);
+
+				if (collectionLimit >= 0 && !skippedField) {
+					if (arrayField || deferredField) {
+						logger.warn("Limit is not applicable to " + fieldReference
+						            + " as the items are not added to the collection by unmarshaller.");
+					}
+					else if (limitCollection(codeModel, targetClass, fieldName, collectionInterfaceClassName,
+					            collectionInterfaceClass, fieldTypeParametrisations.get(0),
+					            newCollection(codeModel, fieldConfiguration, collectionImplClass, collectionCapacity),
+					            collectionLimit)) {
+						logger.debug("Applying limit of " + collectionLimit + " items...");
+						preProcessingClasses.add(targetClass);
+						postProcessingClasses.add(targetClass);
+
+						getterMethod.javadoc().add("At most " + collectionLimit
+						            + " items are accepted on unmarshalling.");
+					}
+				}
+
+				// Unmarshalled collection is trimmed before it is frozen. Array is created by unmarshaller with exact
+				// size:
+				if (fieldConfiguration.isTrim() && !arrayField && !deferredField) {
+					logger.debug("Applying trimming...");
+
+					if (trimCollection(codeModel, targetClass, fieldName, collectionInterfaceClassName,
+					            fieldTypeParametrisations.get(0),
+					            compactCollection ? collectionImplClassName : null)) {
+						postProcessingClasses.add(targetClass);
+					}
+				}
 
 				// Add a new setter method:
 				// GENERATED CODE: public void setFieldName(I<T> fieldName) { this.fieldName = fieldName; }
 				JMethod setterMethod = targetClass.method(JMod.PUBLIC, codeModel.VOID, "set" + propertyName);
-
-				setterMethod.body().assign(JExpr._this().ref(fieldName),
-				            setterMethod.param(collectionInterfaceClass, fieldName));
+				JVar setterParam = setterMethod.param(collectionInterfaceClass, fieldName);
+
+				if (unmodifiableMethodName != null) {
+					// The copy is created the same way as the collection created by the class:
+					// GENERATED CODE: if (fieldName == null) { this.fieldName = null; }
+					//                 else { I<T> copy = new C<T>(); copy.addAll(fieldName);
+					//                        this.fieldName = Collections.unmodifiableList(copy); }
+					JConditional ifNull = setterMethod.body()._if(setterParam.eq(JExpr._null()));
+					ifNull._then().assign(JExpr._this().ref(fieldName), JExpr._null());
+					JVar copy = ifNull._else().decl(collectionInterfaceClass, "copy",
+					            newCollection(codeModel, fieldConfiguration, collectionImplClass, collectionCapacity));
+					ifNull._else().invoke(copy, "addAll").arg(setterParam);
+					ifNull._else().assign(JExpr._this().ref(fieldName),
+					            codeModel.ref(Collections.class).staticInvoke(unmodifiableMethodName).arg(copy));
+
+					setterMethod.javadoc().add("The given collection is copied.");
+
+					freezeCollection(codeModel, targetClass, fieldName, unmodifiableMethodName);
+					postProcessingClasses.add(targetClass);
+				}
+				else {
+					setterMethod.body().assign(JExpr._this().ref(fieldName), setterParam);
+				}
 
 				// Modify interface as well:
 				if (implementationInterface != null) {
 					writeSummary("\tCorrecting interface " + implementationInterface.fullName());
 
-					implementationInterface.method(JMod.PUBLIC, collectionInterfaceClass, "get" + propertyName);
-					setterMethod = implementationInterface.method(JMod.PUBLIC, codeModel.VOID, "set" + propertyName);
-					setterMethod.param(collectionInterfaceClass, fieldName);
+					JMethod interfaceGetterMethod = implementationInterface.method(JMod.PUBLIC, collectionInterfaceClass,
+					            "get" + propertyName);
+
+					JMethod interfaceSetterMethod = implementationInterface.method(JMod.PUBLIC, codeModel.VOID,
+					            "set" + propertyName);
+					interfaceSetterMethod.param(collectionInterfaceClass, fieldName);
+
+					// Getter and setter contracts are the same for the interface:
+					copyJavadoc(getterMethod, interfaceGetterMethod);
+					copyJavadoc(setterMethod, interfaceSetterMethod);
+				}
+
+				if (fieldConfiguration.isGenerateAccessors() && !arrayField) {
+					generateAccessors(codeModel, targetClass, implementationInterface, fieldName, propertyName,
+					            candidateFieldPropertyInfo.getName(true), collectionInterfaceClass,
+					            fieldTypeParametrisations.get(0),
+					            instantiationMode == CommonConfiguration.InstantiationMode.LAZY_CONCURRENT ? null
+					                        : newCollection(codeModel, fieldConfiguration, collectionImplClass,
+					                                    collectionCapacity),
+					            collectionInterfaceClassName, unmodifiableMethodName != null);
+				}
+
+				if (fieldConfiguration.isIndex() || fieldConfiguration.getKeyPropertyName() != null) {
+					if (arrayField) {
+						logger.warn("Key lookup is not applicable to array field " + fieldReference + ".");
+					}
+					else {
+						generateKeyLookup(codeModel, outline, fieldConfiguration, targetClass, implementationInterface,
+						            setterMethod, fieldPropertyInfo, candidateFieldPropertyInfo, fieldName,
+						            propertyName, collectionInterfaceClass, fieldTypeParametrisations.get(0));
+					}
+				}
+
+				// Items can be streamed only if they are bound by declared type:
+				if (fieldConfiguration.isStreamReader() || fieldConfiguration.isStreamWriter()) {
+					if (adapterAnnotation != null || (xmlElementInfoWasTransferred && unwrappedElementInfo == null)) {
+						logger.warn("Streaming is not applicable to " + fieldReference
+						            + " as its items are not bound by type.");
+					}
+					else {
+						if (fieldConfiguration.isStreamReader()) {
+							generateStreamReader(codeModel, outline, targetClass, fieldPropertyInfo, fieldName,
+							            propertyName, fieldTypeParametrisations.get(0));
+						}
+
+						if (fieldConfiguration.isStreamWriter()) {
+							generateStreamWriter(codeModel, targetClass, fieldPropertyInfo,
+							            candidateFieldPropertyInfo, fieldName, propertyName,
+							            fieldTypeParametrisations.get(0));
+						}
+					}
 				}
 
-				// Adapt factory class:
-				for (JDefinedClass objectFactoryClass : candidate.getObjectFactoryClasses()) {
+				// Adapt factory class. Unwrapped element does not need the factory method:
+				for (JDefinedClass objectFactoryClass : unwrappedElementInfo != null
+				            ? Collections.<JDefinedClass> emptyList() : candidate.getObjectFactoryClasses()) {
 					modificationCount += createScopedFactoryMethods(codeModel, objectFactoryClass,
 					            candidate.getScopedElementInfos().values(), targetClass, xmlElementDeclModelClass,
 					            jaxbElementModelClass, qNameModelClass);
@@ -514,6 +886,9 @@ public class XmlElementWrapperPlugin extends AbstractConfigurablePlugin {
 			}
 		}
 
+		chainUnmarshalCallbacks(codeModel, preProcessingClasses, BEFORE_UNMARSHAL_METHOD_NAME);
+		chainUnmarshalCallbacks(codeModel, postProcessingClasses, AFTER_UNMARSHAL_METHOD_NAME);
+
 		writeSummary("\t" + modificationCount + " modification(s) to original code.");
 		writeSummary("");
 
@@ -522,6 +897,14 @@ public class XmlElementWrapperPlugin extends AbstractConfigurablePlugin {
 		writeSummary("\t" + deletionCount + " deletion(s) from original code.");
 		writeSummary("");
 
+		if (globalConfiguration.getReflectionConfigFileName() != null) {
+			writeReflectionConfig(codeModel, globalConfiguration.getReflectionConfigFileName());
+		}
+
+		if (globalConfiguration.getClassListFileName() != null) {
+			writeClassList(codeModel, globalConfiguration.getClassListFileName());
+		}
+
 		globalConfiguration.closeSummary();
 
 		Ring.end(null);
@@ -632,7 +1015,9 @@ public class XmlElementWrapperPlugin extends AbstractConfigurablePlugin {
 			method.annotate(xmlElementDeclModelClass).param("namespace", info.namespace).param("name", info.name)
 			            .param("scope", targetClass);
 
-			JInvocation qname = JExpr._new(qNameModelClass).arg(info.namespace).arg(info.name);
+			// QName is shared by all elements with the same name, the same way as XJC does for global elements:
+			JFieldVar qname = getQNameConstant(factoryClass, qNameModelClass, info.namespace, info.name,
+			            "_" + methodName.substring("create".length()) + "_QNAME");
 
 			// The primitive type get boxed and cannot be a narrowed class. However in general case if this type
 			// is a collection (i.e. is narrowed), then it should be additionally casted to Class (e.g. "(Class) List.class").
@@ -650,6 +1035,77 @@ public class XmlElementWrapperPlugin extends AbstractConfigurablePlugin {
 		return createdMethods;
 	}
 
+	/**
+	 * Returns the info of the element, which is referred by the field of given candidate via single
+	 * {@code @XmlElementRef}, if the items can be bound directly instead of {@link JAXBElement}: the element is
+	 * declared in the scope of the candidate, is not nillable, abstract or substituted, has no adapter and its type is
+	 * not a list.
+	 * 
+	 * @return the element info or {@code null} if the element reference is ambiguous
+	 */
+	private static ScopedElementInfo getUnwrappableElementInfo(Candidate candidate, JClass xmlElementRefModelClass,
+	            JClass xmlJavaTypeAdapterModelClass) {
+		XSDeclaration declaration = getXsdDeclaration(candidate.getFieldPropertyInfo());
+
+		if (candidate.getScopedElementInfos().size() != 1
+		            || getAnnotation(candidate.getField(), xmlElementRefModelClass) == null
+		            || !(declaration instanceof XSElementDecl)) {
+			return null;
+		}
+
+		XSElementDecl elementDeclaration = (XSElementDecl) declaration;
+		Map.Entry<String, ScopedElementInfo> entry = candidate.getScopedElementInfos().entrySet().iterator().next();
+		ScopedElementInfo info = entry.getValue();
+
+		if (elementDeclaration.isNillable() || elementDeclaration.isAbstract()
+		            || elementDeclaration.getSubstitutables().size() > 1
+		            || !generableToString(JExpr.lit(elementDeclaration.getName()))
+		                        .equals(generableToString(info.name))
+		            || (info.type instanceof JClass && !((JClass) info.type).getTypeParameters().isEmpty())) {
+			return null;
+		}
+
+		for (JDefinedClass objectFactoryClass : candidate.getObjectFactoryClasses()) {
+			for (JMethod method : objectFactoryClass.methods()) {
+				if (method.name().equals(entry.getKey())
+				            && getAnnotation(method, xmlJavaTypeAdapterModelClass) != null) {
+					return null;
+				}
+			}
+		}
+
+		return info;
+	}
+
+	/**
+	 * Returns the static {@link QName} constant of given factory class, which is initialized with given namespace and
+	 * name. The constant is created with given name (or the name with numeric suffix, if such field already exists),
+	 * if the class does not have one yet.
+	 */
+	private static JFieldVar getQNameConstant(JDefinedClass factoryClass, JClass qNameModelClass,
+	            JExpression namespace, JExpression name, String constantName) {
+		JExpression init = JExpr._new(qNameModelClass).arg(namespace).arg(name);
+		String initString = generableToString(init);
+
+		for (JFieldVar field : factoryClass.fields().values()) {
+			JExpression fieldInit = getPrivateField(field, "init");
+
+			if ((field.mods().getValue() & JMod.STATIC) != 0 && fieldInit != null
+			            && field.type().fullName().equals(qNameModelClass.fullName())
+			            && initString.equals(generableToString(fieldInit))) {
+				return field;
+			}
+		}
+
+		String fieldName = constantName;
+
+		for (int i = 1; factoryClass.fields().containsKey(fieldName); i++) {
+			fieldName = constantName + i;
+		}
+
+		return factoryClass.field(JMod.PRIVATE | JMod.STATIC | JMod.FINAL, qNameModelClass, fieldName, init);
+	}
+
 	/**
 	 * Locate the candidates classes for substitution/removal.
 	 * 
@@ -766,6 +1222,10 @@ public class XmlElementWrapperPlugin extends AbstractConfigurablePlugin {
 		// Visit all candidate classes.
 		for (Candidate candidate : candidates) {
 			if (!candidate.canBeRemoved()) {
+				for (String reason : candidate.getRetentionReasons()) {
+					writeSummary("\tKeeping class " + candidate.getClassName() + ": " + reason);
+				}
+
 				continue;
 			}
 
@@ -962,34 +1422,1559 @@ public class XmlElementWrapperPlugin extends AbstractConfigurablePlugin {
 	}
 
 	/**
-	 * For the given annotatable check that all annotations (and all annotations within annotations recursively) do not
-	 * refer any candidate for removal.
+	 * Write GraalVM reflection configuration for all classes that remain in the model after the transformation: fields
+	 * and constructors of every class, {@code afterUnmarshal()} callbacks plus all methods of Object Factories. The
+	 * format is chosen by file name: {@code reachability-metadata.json} gets the unified format, any other name gets
+	 * the {@code reflect-config.json} format.
 	 */
-	private void checkAnnotationReference(Map<String, Candidate> candidatesMap, JAnnotatable annotatable) {
-		for (JAnnotationUse annotation : annotatable.annotations()) {
-			JAnnotationValue annotationMember = getAnnotationMember(annotation, "value");
+	private void writeReflectionConfig(JCodeModel codeModel, String fileName) throws IOException {
+		JClass xmlRegistryModelClass = codeModel.ref(XmlRegistry.class);
+		boolean reachabilityMetadata = new File(fileName).getName().equals("reachability-metadata.json");
+		String indent = reachabilityMetadata ? "    " : "  ";
+		List<JDefinedClass> classes = getGeneratedClasses(codeModel);
 
-			if (annotationMember instanceof JAnnotationArrayMember) {
-				checkAnnotationReference(candidatesMap, (JAnnotationArrayMember) annotationMember);
+		PrintWriter writer = new PrintWriter(new OutputStreamWriter(new FileOutputStream(fileName), "UTF-8"));
 
-				continue;
+		try {
+			writer.println(reachabilityMetadata ? "{\n  \"reflection\": [" : "[");
+
+			for (Iterator<JDefinedClass> iter = classes.iterator(); iter.hasNext();) {
+				JDefinedClass clazz = iter.next();
+
+				List<String> fields = new ArrayList<String>();
+				List<String> methods = new ArrayList<String>();
+
+				for (JFieldVar field : clazz.fields().values()) {
+					if ((field.mods().getValue() & JMod.STATIC) == 0) {
+						fields.add("{ \"name\": \"" + field.name() + "\" }");
+					}
+				}
+
+				// Enum constants are looked up as fields when @XmlEnumValue is resolved:
+				for (String enumConstant : clazz.enumConstants().keySet()) {
+					fields.add("{ \"name\": \"" + enumConstant + "\" }");
+				}
+
+				if (clazz.getClassType() == ClassType.CLASS && (clazz.mods().getValue() & JMod.ABSTRACT) == 0) {
+					if (!clazz.constructors().hasNext()) {
+						methods.add(toReflectionMethod("<init>", null));
+					}
+
+					for (Iterator<JMethod> constructorIter = clazz.constructors(); constructorIter.hasNext();) {
+						methods.add(toReflectionMethod("<init>", constructorIter.next()));
+					}
+
+					if (getAnnotation(clazz, xmlRegistryModelClass) != null) {
+						for (JMethod method : clazz.methods()) {
+							methods.add(toReflectionMethod(method.name(), method));
+						}
+					}
+				}
+
+				// Unmarshaller invokes the callbacks reflectively:
+				for (String callbackName : new String[] { BEFORE_UNMARSHAL_METHOD_NAME, AFTER_UNMARSHAL_METHOD_NAME }) {
+					JMethod callbackMethod = getUnmarshalCallback(codeModel, clazz, callbackName);
+
+					if (callbackMethod != null) {
+						methods.add(toReflectionMethod(callbackName, callbackMethod));
+					}
+				}
+
+				writer.println(indent + "{");
+				writer.print(indent + "  \"" + (reachabilityMetadata ? "type" : "name") + "\": \"" + clazz.binaryName()
+				            + "\"");
+
+				if (!reachabilityMetadata) {
+					writer.print(",\n" + indent + "  \"queryAllDeclaredMethods\": true");
+				}
+
+				if (!fields.isEmpty()) {
+					writer.print(",\n" + indent + "  \"fields\": [\n" + indent + "    "
+					            + StringUtils.join(fields, ",\n" + indent + "    ") + "\n" + indent + "  ]");
+				}
+
+				if (!methods.isEmpty()) {
+					writer.print(",\n" + indent + "  \"methods\": [\n" + indent + "    "
+					            + StringUtils.join(methods, ",\n" + indent + "    ") + "\n" + indent + "  ]");
+				}
+
+				writer.println("\n" + indent + (iter.hasNext() ? "}," : "}"));
+			}
+
+			writer.println(reachabilityMetadata ? "  ]\n}" : "]");
+		}
+		finally {
+			writer.close();
+		}
+
+		writeSummary("\t" + classes.size() + " class(es) written to reflection configuration " + fileName);
+		writeSummary("");
+	}
+
+	/**
+	 * Returns JSON reflection entry for the method with the given name. If {@code method} is {@code null} then the
+	 * method has no parameters.
+	 */
+	private static String toReflectionMethod(String methodName, JMethod method) {
+		List<String> parameterTypes = new ArrayList<String>();
+
+		if (method != null) {
+			for (JVar param : method.params()) {
+				parameterTypes.add("\"" + param.type().erasure().binaryName() + "\"");
+			}
+		}
+
+		return "{ \"name\": \"" + methodName + "\", \"parameterTypes\": [" + StringUtils.join(parameterTypes, ", ")
+		            + "] }";
+	}
+
+	/**
+	 * Generate null-safe accessors for the given collection field, which do not allocate the collection on read. The
+	 * collection is instantiated only by add methods, if it was not instantiated before. If the class has an
+	 * implementation interface, the accessors are added to it as well.
+	 * 
+	 * @param itemName
+	 *            the (singular) name of the collection item used for add method
+	 * @param newCollection
+	 *            expression which creates new collection instance or {@code null} if the collection should be obtained
+	 *            from getter (which takes care of thread-safe instantiation)
+	 * @param unmodifiable
+	 *            if {@code true} then the collection is unmodifiable and add methods are not generated
+	 */
+	private void generateAccessors(JCodeModel codeModel, JDefinedClass targetClass,
+	            JDefinedClass implementationInterface, String fieldName, String propertyName, String itemName,
+	            JClass collectionInterfaceClass, JClass itemClass, JExpression newCollection,
+	            String collectionInterfaceClassName, boolean unmodifiable) {
+		JFieldRef field = JExpr._this().ref(fieldName);
+		JClass actionClass = codeModel.ref(Consumer.class).narrow(wildcardSuper(itemClass));
+		JClass itemsClass = codeModel.ref(Collection.class).narrow(itemClass.wildcard());
+		String emptyCollectionMethodName = getEmptyCollectionMethodName(collectionInterfaceClassName);
+		String addMethodName = "add" + itemName;
+
+		// Several collections may have the same item name (e.g. "entries" and "items" of type "entry"):
+		if (targetClass.getMethod(addMethodName, new JType[] { itemClass }) != null) {
+			addMethodName = "addTo" + propertyName;
+		}
+
+		List<JDefinedClass> classes = new ArrayList<JDefinedClass>();
+
+		classes.add(targetClass);
+
+		if (implementationInterface != null) {
+			classes.add(implementationInterface);
+		}
+
+		for (JDefinedClass clazz : classes) {
+			boolean isInterface = clazz.isInterface();
+
+			// GENERATED CODE: public int sizeOfFieldName() { return (fieldName == null) ? 0 : fieldName.size(); }
+			JMethod method = clazz.method(JMod.PUBLIC, codeModel.INT, "sizeOf" + propertyName);
+
+			if (!isInterface) {
+				JExpression value = readField(method.body(), field, collectionInterfaceClass, newCollection);
+				method.body()._return(JOp.cond(value.eq(JExpr._null()), JExpr.lit(0), value.invoke("size")));
+			}
+
+			// GENERATED CODE: public boolean isFieldNameEmpty() { return fieldName == null || fieldName.isEmpty(); }
+			method = clazz.method(JMod.PUBLIC, codeModel.BOOLEAN, "is" + propertyName + "Empty");
+
+			if (!isInterface) {
+				JExpression value = readField(method.body(), field, collectionInterfaceClass, newCollection);
+				method.body()._return(value.eq(JExpr._null()).cor(value.invoke("isEmpty")));
 			}
 
-			JExpression type = getAnnotationMemberExpression(annotation, "type");
+			// GENERATED CODE: public void forEachFieldName(Consumer<? super T> action) {
+			//                   if (fieldName != null) fieldName.forEach(action); }
+			method = clazz.method(JMod.PUBLIC, codeModel.VOID, "forEach" + propertyName);
+			JVar action = method.param(actionClass, "action");
 
-			if (type == null) {
-				// Can be the case for @XmlElement(name = "publication-reference", namespace = "http://mycompany.org/exchange")
-				// or any other annotation without "type" 
+			if (!isInterface) {
+				JExpression value = readField(method.body(), field, collectionInterfaceClass, newCollection);
+				method.body()._if(value.ne(JExpr._null()))._then().invoke(value, "forEach").arg(action);
+			}
+
+			// GENERATED CODE: public I<T> getFieldNameOrEmpty() {
+			//                   if (fieldName == null) return Collections.emptyList(); return fieldName; }
+			if (emptyCollectionMethodName != null) {
+				method = clazz.method(JMod.PUBLIC, collectionInterfaceClass, "get" + propertyName + "OrEmpty");
+
+				if (!isInterface) {
+					JExpression value = readField(method.body(), field, collectionInterfaceClass, newCollection);
+					method.body()._if(value.eq(JExpr._null()))._then()
+					            ._return(codeModel.ref(Collections.class).staticInvoke(emptyCollectionMethodName));
+					method.body()._return(value);
+				}
+			}
+
+			if (unmodifiable) {
 				continue;
 			}
 
-			Candidate candidate = candidatesMap.get(generableToString(type).replace(".class", ""));
+			// GENERATED CODE: public boolean addItemName(T item) {
+			//                   if (fieldName == null) fieldName = new C<T>(); return fieldName.add(item); }
+			method = clazz.method(JMod.PUBLIC, codeModel.BOOLEAN, addMethodName);
+			JVar item = method.param(itemClass, "item");
 
-			if (candidate != null) {
-				logger.debug("Candidate " + candidate.getClassName()
-				            + " is used in XmlElements/XmlElementRef and hence won't be removed.");
-				candidate.unmarkForRemoval();
+			if (!isInterface) {
+				method.body()._return(instantiateCollection(method.body(), field, newCollection, propertyName)
+				            .invoke("add").arg(item));
+			}
+
+			// GENERATED CODE: public boolean addAllFieldName(Collection<? extends T> items) {
+			//                   if (fieldName == null) fieldName = new C<T>(); return fieldName.addAll(items); }
+			method = clazz.method(JMod.PUBLIC, codeModel.BOOLEAN, "addAll" + propertyName);
+			JVar items = method.param(itemsClass, "items");
+
+			if (!isInterface) {
+				method.body()._return(instantiateCollection(method.body(), field, newCollection, propertyName)
+				            .invoke("addAll").arg(items));
+			}
+		}
+	}
+
+	/**
+	 * Add the code which reads the collection field to the given block. Volatile field (which is the case when
+	 * {@code newCollection} is {@code null}) is read into a local variable once, so that it is not re-read between
+	 * the {@code null} check and the use.
+	 * 
+	 * @return the expression which refers the collection
+	 */
+	private static JExpression readField(JBlock block, JFieldRef field, JClass collectionInterfaceClass,
+	            JExpression newCollection) {
+		if (newCollection == null) {
+			// GENERATED CODE: I<T> result = this.fieldName;
+			return block.decl(collectionInterfaceClass, "result", field);
+		}
+
+		return field;
+	}
+
+	/**
+	 * Add the code which instantiates the collection if necessary to the given block.
+	 * 
+	 * @return the expression which refers the instantiated collection
+	 */
+	private static JExpression instantiateCollection(JBlock block, JFieldRef field, JExpression newCollection,
+	            String propertyName) {
+		if (newCollection == null) {
+			return JExpr.invoke("get" + propertyName);
+		}
+
+		block._if(field.eq(JExpr._null()))._then().assign(field, newCollection);
+
+		return field;
+	}
+
+	/**
+	 * Returns the name of {@link Collections} method which returns an unmodifiable view of the collection with given
+	 * interface.
+	 * 
+	 * @return the method name or {@code null} if the collection cannot be made unmodifiable
+	 */
+	private String getUnmodifiableCollectionMethodName(ClassConfiguration configuration) {
+		String collectionInterfaceClassName = configuration.getCollectionInterfaceClassName();
+		String methodName = null;
+
+		if (collectionInterfaceClassName.equals(Collection.class.getName())) {
+			methodName = "unmodifiableCollection";
+		}
+		else if (collectionInterfaceClassName.equals(List.class.getName())) {
+			methodName = "unmodifiableList";
+		}
+		else if (collectionInterfaceClassName.equals(Set.class.getName())) {
+			methodName = "unmodifiableSet";
+		}
+		else if (collectionInterfaceClassName.equals(SortedSet.class.getName())) {
+			methodName = "unmodifiableSortedSet";
+		}
+		else if (collectionInterfaceClassName.equals(NavigableSet.class.getName())) {
+			methodName = "unmodifiableNavigableSet";
+		}
+		else {
+			logger.warn("Unmodifiable option is ignored as there is no unmodifiable view for "
+			            + collectionInterfaceClassName + ".");
+			return null;
+		}
+
+		return methodName;
+	}
+
+	/**
+	 * Returns the primitive array class which can substitute the collection of given boxed primitive items. Primitive
+	 * array cannot hold {@code null} items, hence nillable items are not substituted, as well as adapted items and
+	 * element references.
+	 * 
+	 * @return the array class or {@code null} if the collection should not be substituted with array
+	 */
+	private static JClass getPrimitiveArrayClass(JCodeModel codeModel, Candidate candidate, JClass itemClass) {
+		JType primitiveType = itemClass.unboxify();
+
+		if (!primitiveType.isPrimitive() || !(candidate.getFieldPropertyInfo() instanceof CElementPropertyInfo)) {
+			return null;
+		}
+
+		for (JClass annotationModelClass : new JClass[] { codeModel.ref(XmlJavaTypeAdapter.class),
+		        codeModel.ref(XmlAnyElement.class), codeModel.ref(XmlMixed.class), codeModel.ref(XmlElementRef.class),
+		        codeModel.ref(XmlElementRefs.class), codeModel.ref(XmlElements.class) }) {
+			if (getAnnotation(candidate.getField(), annotationModelClass) != null) {
+				return null;
+			}
+		}
+
+		JExpression nillable = getAnnotationMemberExpression(
+		            getAnnotation(candidate.getField(), codeModel.ref(XmlElement.class)), "nillable");
+
+		if (nillable != null && generableToString(nillable).equals("true")) {
+			return null;
+		}
+
+		return primitiveType.array();
+	}
+
+	/**
+	 * Generate the method which finds the item of given collection field by key, e.g. {@code findItemById(K)}. The key
+	 * is the property of item class which is named by {@code key} option or which is selected by XSD {@code xs:key} or
+	 * {@code xs:unique} identity constraint of the wrapper element (if {@code index} option is enabled). The lookup is
+	 * backed by the index, which is built on first call and rebuilt when the collection is replaced or its size is
+	 * changed, or when the key is not found or the key of found item does not match (item was replaced or modified in
+	 * place). The item which was replaced in place can be still found until the index is rebuilt, hence the setter
+	 * resets the index.
+	 */
+	private void generateKeyLookup(JCodeModel codeModel, Outline outline, ClassConfiguration configuration,
+	            JDefinedClass targetClass, JDefinedClass implementationInterface, JMethod setterMethod,
+	            CPropertyInfo fieldPropertyInfo, CPropertyInfo candidateFieldPropertyInfo, String fieldName,
+	            String propertyName, JClass collectionInterfaceClass, JClass itemClass) {
+		String fieldReference = targetClass.fullName() + "#" + fieldName;
+		ClassOutline itemClassOutline = getClassOutline(outline, itemClass);
+
+		if (itemClassOutline == null) {
+			logger.warn("Key lookup is not applicable to items of " + fieldReference + " of type " + itemClass.name()
+			            + ".");
+			return;
+		}
+
+		CPropertyInfo keyPropertyInfo;
+
+		if (configuration.getKeyPropertyName() != null) {
+			keyPropertyInfo = findPropertyInfo(itemClassOutline.target, configuration.getKeyPropertyName(), null);
+
+			if (keyPropertyInfo == null) {
+				logger.warn("Key property " + configuration.getKeyPropertyName() + " is not found in "
+				            + itemClass.fullName() + ".");
+				return;
+			}
+		}
+		else {
+			keyPropertyInfo = getIdentityConstraintPropertyInfo(fieldPropertyInfo, candidateFieldPropertyInfo,
+			            itemClassOutline.target);
+
+			if (keyPropertyInfo == null) {
+				logger.debug("No identity constraint is declared for items of " + fieldReference + ".");
+				return;
 			}
 		}
+
+		JMethod keyGetterMethod = getGetterMethod(itemClassOutline, keyPropertyInfo);
+
+		if (keyGetterMethod == null || keyPropertyInfo.isCollection()) {
+			logger.warn("Key property " + keyPropertyInfo.getName(false) + " of " + itemClass.fullName()
+			            + " has no getter or is a collection.");
+			return;
+		}
+
+		String indexFieldName = fieldName + "Index";
+		String indexSourceFieldName = fieldName + "IndexSource";
+		String indexSizeFieldName = fieldName + "IndexSize";
+
+		if (targetClass.fields().containsKey(indexFieldName) || targetClass.fields().containsKey(indexSourceFieldName)
+		            || targetClass.fields().containsKey(indexSizeFieldName)) {
+			logger.warn("Key lookup for " + fieldReference + " clashes with existing field " + indexFieldName + ".");
+			return;
+		}
+
+		logger.debug("Applying key lookup by " + keyPropertyInfo.getName(false) + " to " + fieldReference + "...");
+
+		JType keyType = keyGetterMethod.type();
+		JClass indexClass = codeModel.ref(Map.class).narrow(keyType.boxify(), itemClass);
+
+		// Transient fields are not bound by JAXB:
+		// GENERATED CODE: private transient Map<K, T> fieldNameIndex;
+		//                 private transient I<T> fieldNameIndexSource;
+		//                 private transient int fieldNameIndexSize;
+		JFieldVar indexField = targetClass.field(JMod.PRIVATE | JMod.TRANSIENT, indexClass, indexFieldName);
+		JFieldVar indexSourceField = targetClass.field(JMod.PRIVATE | JMod.TRANSIENT, collectionInterfaceClass,
+		            indexSourceFieldName);
+		JFieldVar indexSizeField = targetClass.field(JMod.PRIVATE | JMod.TRANSIENT, codeModel.INT,
+		            indexSizeFieldName);
+
+		// GENERATED CODE: private Map<K, T> getFieldNameIndex(boolean rebuild) {
+		//                     I<T> collection = this.fieldName;
+		//                     if (collection == null) return Collections.emptyMap();
+		//                     if (rebuild || this.fieldNameIndex == null || this.fieldNameIndexSource != collection
+		//                                 || this.fieldNameIndexSize != collection.size()) {
+		//                         Map<K, T> index = new HashMap<>(collection.size() * 4 / 3 + 1);
+		//                         for (T item : collection) if (item != null) index.putIfAbsent(item.getKey(), item);
+		//                         this.fieldNameIndex = index; ... }
+		//                     return this.fieldNameIndex; }
+		JMethod indexMethod = targetClass.method(JMod.PRIVATE, indexClass, "get" + propertyName + "Index");
+		JVar rebuild = indexMethod.param(codeModel.BOOLEAN, "rebuild");
+		JBlock body = indexMethod.body();
+		JVar collection = body.decl(collectionInterfaceClass, "collection", JExpr._this().ref(fieldName));
+
+		body._if(collection.eq(JExpr._null()))._then()
+		            ._return(codeModel.ref(Collections.class).staticInvoke("emptyMap"));
+
+		JFieldRef indexFieldRef = JExpr._this().ref(indexField);
+		JFieldRef indexSourceFieldRef = JExpr._this().ref(indexSourceField);
+		JFieldRef indexSizeFieldRef = JExpr._this().ref(indexSizeField);
+		JBlock rebuildBlock = body._if(rebuild.cor(indexFieldRef.eq(JExpr._null()))
+		            .cor(indexSourceFieldRef.ne(collection)).cor(indexSizeFieldRef.ne(collection.invoke("size"))))
+		            ._then();
+		JVar index = rebuildBlock.decl(indexClass, "index",
+		            JExpr._new(codeModel.ref(HashMap.class).narrow(keyType.boxify(), itemClass)).arg(
+		                        collection.invoke("size").mul(JExpr.lit(4)).div(JExpr.lit(3)).plus(JExpr.lit(1))));
+		JForEach forEach = rebuildBlock.forEach(itemClass, "item", collection);
+
+		forEach.body()._if(forEach.var().ne(JExpr._null()))._then().invoke(index, "putIfAbsent")
+		            .arg(forEach.var().invoke(keyGetterMethod)).arg(forEach.var());
+		rebuildBlock.assign(indexFieldRef, index);
+		rebuildBlock.assign(indexSourceFieldRef, collection);
+		rebuildBlock.assign(indexSizeFieldRef, collection.invoke("size"));
+		body._return(indexFieldRef);
+
+		// Item replaced in place (e.g. via List.set()) does not change the size of the collection, hence the index is
+		// rebuilt once on a miss:
+		// GENERATED CODE: public T findItemByKey(K key) {
+		//                     T item = getFieldNameIndex(false).get(key);
+		//                     if (item == null || !Objects.equals(key, item.getKey()))
+		//                         item = getFieldNameIndex(true).get(key);
+		//                     return item; }
+		JMethod findMethod = targetClass.method(JMod.PUBLIC, itemClass,
+		            "find" + candidateFieldPropertyInfo.getName(true) + "By" + keyPropertyInfo.getName(true));
+		JVar key = findMethod.param(keyType, "key");
+		JVar item = findMethod.body().decl(itemClass, "item",
+		            JExpr.invoke(indexMethod).arg(JExpr.FALSE).invoke("get").arg(key));
+
+		findMethod.body()._if(item.eq(JExpr._null()).cor(codeModel.ref(Objects.class).staticInvoke("equals")
+		            .arg(key).arg(item.invoke(keyGetterMethod)).not()))._then()
+		            .assign(item, JExpr.invoke(indexMethod).arg(JExpr.TRUE).invoke("get").arg(key));
+		findMethod.body()._return(item);
+
+		findMethod.javadoc().add("Returns the first item of {@link #get" + propertyName + "()} with the given "
+		            + keyPropertyInfo.getName(false) + " or {@code null}. The lookup is backed by the index, which is"
+		            + " built on first call and rebuilt when the collection is replaced via setter, its size is"
+		            + " changed, the key is not found or the key of found item does not match, hence the lookup of"
+		            + " missing key takes linear time. The item replaced in the collection can be still found until"
+		            + " the index is rebuilt or the collection is set again. The index is not thread-safe.");
+
+		// GENERATED CODE: this.fieldNameIndex = null;
+		setterMethod.body().assign(indexFieldRef, JExpr._null());
+
+		if (implementationInterface != null) {
+			JMethod interfaceFindMethod = implementationInterface.method(JMod.PUBLIC, itemClass, findMethod.name());
+			interfaceFindMethod.param(keyType, "key");
+			copyJavadoc(findMethod, interfaceFindMethod);
+		}
+	}
+
+	/**
+	 * Generate the static method which streams the items of given collection field from {@link XMLStreamReader} one by
+	 * one, e.g. {@code streamItems(XMLStreamReader, Unmarshaller)}, so that huge wrapper element can be processed in
+	 * constant memory. The method advances the reader to the start tag of the wrapper element (if it is not positioned
+	 * on it already) and each item is unmarshalled by declared type on demand.
+	 */
+	private void generateStreamReader(JCodeModel codeModel, Outline outline, JDefinedClass targetClass,
+	            CPropertyInfo fieldPropertyInfo, String fieldName, String propertyName, JClass itemClass) {
+		String fieldReference = targetClass.fullName() + "#" + fieldName;
+		XSDeclaration wrapperDeclaration = getXsdDeclaration(fieldPropertyInfo);
+
+		if (itemClass.isInterface()) {
+			ClassOutline itemClassOutline = getClassOutline(outline, itemClass);
+
+			if (itemClassOutline != null) {
+				itemClass = itemClassOutline.implClass;
+			}
+		}
+
+		if (wrapperDeclaration == null || itemClass == codeModel.ref(Object.class) || itemClass.isInterface()
+		            || !itemClass.getTypeParameters().isEmpty()) {
+			logger.warn("Streaming reader is not applicable to " + fieldReference + " with items of type "
+			            + itemClass.name() + ".");
+			return;
+		}
+
+		String methodName = "stream" + propertyName;
+
+		if (findMethod(targetClass, methodName, 2) != null) {
+			logger.warn("Streaming reader for " + fieldReference + " clashes with existing method " + methodName + ".");
+			return;
+		}
+
+		logger.debug("Applying streaming reader to " + fieldReference + "...");
+
+		JClass dataBindingExceptionClass = codeModel.ref(DataBindingException.class);
+
+		// GENERATED CODE: public static Stream<T> streamFieldName(final XMLStreamReader reader,
+		//                             final Unmarshaller unmarshaller) throws XMLStreamException {
+		//                     QName wrapperName = new QName("...", "...");
+		//                     while (!reader.isStartElement() || !wrapperName.equals(reader.getName())) {
+		//                         if (!reader.hasNext()) return Stream.empty();
+		//                         reader.next(); }
+		//                     reader.nextTag();
+		//                     return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new Iterator<T>() {
+		//                         public boolean hasNext() { return reader.isStartElement(); }
+		//                         public T next() { if (!reader.isStartElement()) throw new NoSuchElementException();
+		//                             try { T item = unmarshaller.unmarshal(reader, T.class).getValue();
+		//                                 while (!reader.isStartElement() && !reader.isEndElement()) reader.next();
+		//                                 return item; }
+		//                             catch (JAXBException e) { throw new DataBindingException(e); }
+		//                             catch (XMLStreamException e) { throw new DataBindingException(e); } }
+		//                     }, Spliterator.ORDERED), false); }
+		JMethod streamMethod = targetClass.method(JMod.PUBLIC | JMod.STATIC,
+		            codeModel.ref(Stream.class).narrow(itemClass), methodName);
+		JVar reader = streamMethod.param(JMod.FINAL, XMLStreamReader.class, "reader");
+		JVar unmarshaller = streamMethod.param(JMod.FINAL, Unmarshaller.class, "unmarshaller");
+		streamMethod._throws(XMLStreamException.class);
+
+		JVar wrapperName = streamMethod.body().decl(codeModel.ref(QName.class), "wrapperName",
+		            JExpr._new(codeModel.ref(QName.class)).arg(wrapperDeclaration.getTargetNamespace())
+		                        .arg(wrapperDeclaration.getName()));
+		JBlock positionBlock = streamMethod.body()._while(reader.invoke("isStartElement").not()
+		            .cor(wrapperName.invoke("equals").arg(reader.invoke("getName")).not())).body();
+		positionBlock._if(reader.invoke("hasNext").not())._then()
+		            ._return(codeModel.ref(Stream.class).staticInvoke("empty"));
+		positionBlock.invoke(reader, "next");
+
+		streamMethod.body().invoke(reader, "nextTag");
+
+		JDefinedClass iteratorClass = codeModel.anonymousClass(codeModel.ref(Iterator.class).narrow(itemClass));
+
+		JMethod hasNextMethod = iteratorClass.method(JMod.PUBLIC, codeModel.BOOLEAN, "hasNext");
+		hasNextMethod.annotate(Override.class);
+		hasNextMethod.body()._return(reader.invoke("isStartElement"));
+
+		JMethod nextMethod = iteratorClass.method(JMod.PUBLIC, itemClass, "next");
+		nextMethod.annotate(Override.class);
+		nextMethod.body()._if(reader.invoke("isStartElement").not())._then()
+		            ._throw(JExpr._new(codeModel.ref(NoSuchElementException.class)));
+
+		JTryBlock tryBlock = nextMethod.body()._try();
+		JVar item = tryBlock.body().decl(itemClass, "item",
+		            unmarshaller.invoke("unmarshal").arg(reader).arg(itemClass.dotclass()).invoke("getValue"));
+		// Skip whitespace and comments between items:
+		tryBlock.body()._while(reader.invoke("isStartElement").not().cand(reader.invoke("isEndElement").not()))
+		            .body().invoke(reader, "next");
+		tryBlock.body()._return(item);
+
+		for (Class<?> exceptionClass : new Class<?>[] { JAXBException.class, XMLStreamException.class }) {
+			JCatchBlock catchBlock = tryBlock._catch(codeModel.ref(exceptionClass));
+			catchBlock.body()._throw(JExpr._new(dataBindingExceptionClass).arg(catchBlock.param("e")));
+		}
+
+		JInvocation spliterator = codeModel.ref(Spliterators.class).staticInvoke("spliteratorUnknownSize")
+		            .arg(JExpr._new(iteratorClass)).arg(codeModel.ref(Spliterator.class).staticRef("ORDERED"));
+		streamMethod.body()._return(
+		            codeModel.ref(StreamSupport.class).staticInvoke("stream").arg(spliterator).arg(JExpr.FALSE));
+
+		streamMethod.javadoc().add("Streams the items of {@code " + wrapperDeclaration.getName()
+		            + "} wrapper element from given reader one by one, so that the collection is never materialized."
+		            + " The reader is advanced to the wrapper element, unless it is positioned on it already, and is"
+		            + " positioned on the end tag of the wrapper element when the stream is consumed. The stream is"
+		            + " empty if there is no wrapper element. Errors during the iteration are thrown as {@link "
+		            + DataBindingException.class.getName() + "}.");
+	}
+
+	/**
+	 * Generate the static method which writes the wrapper element of given collection field to
+	 * {@link XMLStreamWriter} and marshals the items pulled from {@link Iterator} one by one, e.g.
+	 * {@code writeItems(XMLStreamWriter, Marshaller, Iterator)}, so that huge collection does not need to be
+	 * materialized. Items are marshalled as fragments, the marshaller property is restored afterwards.
+	 */
+	private void generateStreamWriter(JCodeModel codeModel, JDefinedClass targetClass, CPropertyInfo fieldPropertyInfo,
+	            CPropertyInfo candidateFieldPropertyInfo, String fieldName, String propertyName, JClass itemClass) {
+		String fieldReference = targetClass.fullName() + "#" + fieldName;
+		XSDeclaration wrapperDeclaration = getXsdDeclaration(fieldPropertyInfo);
+		XSDeclaration itemDeclaration = getXsdDeclaration(candidateFieldPropertyInfo);
+
+		if (wrapperDeclaration == null || itemDeclaration == null || itemClass == codeModel.ref(Object.class)
+		            || itemClass.isInterface() || !itemClass.getTypeParameters().isEmpty()) {
+			logger.warn("Streaming writer is not applicable to " + fieldReference + " with items of type "
+			            + itemClass.name() + ".");
+			return;
+		}
+
+		String methodName = "write" + propertyName;
+
+		if (findMethod(targetClass, methodName, 3) != null) {
+			logger.warn("Streaming writer for " + fieldReference + " clashes with existing method " + methodName + ".");
+			return;
+		}
+
+		logger.debug("Applying streaming writer to " + fieldReference + "...");
+
+		JClass marshallerClass = codeModel.ref(Marshaller.class);
+		JExpression wrapperNamespace = JExpr.lit(wrapperDeclaration.getTargetNamespace());
+		JExpression wrapperLocalName = JExpr.lit(wrapperDeclaration.getName());
+
+		// GENERATED CODE: public static void writeFieldName(XMLStreamWriter writer, Marshaller marshaller,
+		//                             Iterator<? extends T> items) throws XMLStreamException, JAXBException {
+		//                     String prefix = writer.getPrefix("...");
+		//                     if (prefix == null) { writer.writeStartElement("", "...", "...");
+		//                         writer.writeDefaultNamespace("..."); }
+		//                     else { writer.writeStartElement(prefix, "...", "..."); }
+		//                     QName itemName = new QName("...", "...");
+		//                     Object fragment = marshaller.getProperty(Marshaller.JAXB_FRAGMENT);
+		//                     marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+		//                     try { while (items.hasNext())
+		//                         marshaller.marshal(new JAXBElement<T>(itemName, T.class, items.next()), writer); }
+		//                     finally { marshaller.setProperty(Marshaller.JAXB_FRAGMENT, fragment); }
+		//                     writer.writeEndElement(); }
+		JMethod writeMethod = targetClass.method(JMod.PUBLIC | JMod.STATIC, codeModel.VOID, methodName);
+		JVar writer = writeMethod.param(XMLStreamWriter.class, "writer");
+		JVar marshaller = writeMethod.param(Marshaller.class, "marshaller");
+		JVar items = writeMethod.param(codeModel.ref(Iterator.class).narrow(itemClass.wildcard()), "items");
+		writeMethod._throws(XMLStreamException.class);
+		writeMethod._throws(JAXBException.class);
+
+		// Wrapper element is put into default namespace, unless its namespace is already bound to some prefix:
+		JVar prefix = writeMethod.body().decl(codeModel.ref(String.class), "prefix",
+		            writer.invoke("getPrefix").arg(wrapperNamespace));
+		JConditional prefixCondition = writeMethod.body()._if(prefix.eq(JExpr._null()));
+		prefixCondition._then().invoke(writer, "writeStartElement").arg(JExpr.lit("")).arg(wrapperLocalName)
+		            .arg(wrapperNamespace);
+		prefixCondition._then().invoke(writer, "writeDefaultNamespace").arg(wrapperNamespace);
+		prefixCondition._else().invoke(writer, "writeStartElement").arg(prefix).arg(wrapperLocalName)
+		            .arg(wrapperNamespace);
+
+		JVar itemName = writeMethod.body().decl(codeModel.ref(QName.class), "itemName",
+		            JExpr._new(codeModel.ref(QName.class)).arg(itemDeclaration.getTargetNamespace())
+		                        .arg(itemDeclaration.getName()));
+		JVar fragment = writeMethod.body().decl(codeModel.ref(Object.class), "fragment",
+		            marshaller.invoke("getProperty").arg(marshallerClass.staticRef("JAXB_FRAGMENT")));
+		writeMethod.body().invoke(marshaller, "setProperty").arg(marshallerClass.staticRef("JAXB_FRAGMENT"))
+		            .arg(codeModel.ref(Boolean.class).staticRef("TRUE"));
+
+		JTryBlock tryBlock = writeMethod.body()._try();
+		tryBlock.body()._while(items.invoke("hasNext")).body().invoke(marshaller, "marshal")
+		            .arg(JExpr._new(codeModel.ref(JAXBElement.class).narrow(itemClass)).arg(itemName)
+		                        .arg(itemClass.dotclass()).arg(items.invoke("next")))
+		            .arg(writer);
+		tryBlock._finally().invoke(marshaller, "setProperty").arg(marshallerClass.staticRef("JAXB_FRAGMENT"))
+		            .arg(fragment);
+
+		writeMethod.body().invoke(writer, "writeEndElement");
+
+		writeMethod.javadoc().add("Writes {@code " + wrapperDeclaration.getName()
+		            + "} wrapper element to given writer and marshals the items pulled from given iterator one by one,"
+		            + " so that the collection is never materialized. The items are marshalled as fragments, the"
+		            + " {@link " + Marshaller.class.getName() + "#JAXB_FRAGMENT} property of the marshaller is"
+		            + " restored afterwards. The writer is not flushed.");
+	}
+
+	/**
+	 * Mark the given collection field as {@link XmlTransient}: all other JAXB annotations are removed from the field
+	 * and the field is removed from {@link XmlType#propOrder()}. As the wrapper element is not bound, unmarshaller
+	 * skips the whole subtree without creating the items, and the collection is not marshalled.
+	 */
+	private static void skipField(JDefinedClass targetClass, JFieldVar implField, JClass xmlTypeModelClass,
+	            String fieldName) {
+		for (JAnnotationUse annotation : new ArrayList<JAnnotationUse>(implField.annotations())) {
+			if (annotation.getAnnotationClass().fullName().startsWith(XmlElement.class.getPackage().getName())) {
+				removeAnnotation(implField, annotation);
+			}
+		}
+
+		// GENERATED CODE: @XmlTransient
+		implField.annotate(XmlTransient.class);
+
+		JAnnotationUse xmlTypeAnnotation = getAnnotation(targetClass, xmlTypeModelClass);
+
+		if (xmlTypeAnnotation == null) {
+			return;
+		}
+
+		JAnnotationArrayMember propOrderValue = (JAnnotationArrayMember) xmlTypeAnnotation.getAnnotationMembers()
+		            .get("propOrder");
+
+		if (propOrderValue != null) {
+			List<JAnnotationValue> values = getPrivateField(propOrderValue, "values");
+
+			for (Iterator<JAnnotationValue> iter = values.iterator(); iter.hasNext();) {
+				if (fieldName.equals(generableToString(iter.next()))) {
+					iter.remove();
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Bind the given collection field via generated {@link XmlJavaTypeAdapter}, which captures the items as raw XML
+	 * during unmarshalling and parses them on first access of the collection (see {@code DeferredListAdapter} from
+	 * plugin runtime companion artifact). The wrapper element is bound by {@link XmlElement} annotation, which replaces
+	 * {@link XmlElementWrapper} annotation and the annotation of the items.
+	 * 
+	 * @return {@code true} if the field was adapted
+	 */
+	private boolean generateDeferredField(JCodeModel codeModel, JDefinedClass targetClass, JFieldVar implField,
+	            JAnnotationUse xmlElementWrapperAnnotation, CPropertyInfo itemPropertyInfo, String fieldName,
+	            String propertyName, JClass itemClass) {
+		String fieldReference = targetClass.fullName() + "#" + fieldName;
+		XSDeclaration itemDeclaration = getXsdDeclaration(itemPropertyInfo);
+
+		if (itemDeclaration == null || itemClass == codeModel.ref(Object.class) || itemClass.isInterface()
+		            || !itemClass.getTypeParameters().isEmpty()) {
+			logger.warn("Deferred parsing is not applicable to " + fieldReference + " with items of type "
+			            + itemClass.name() + ".");
+			return false;
+		}
+
+		JDefinedClass adapterClass;
+
+		try {
+			adapterClass = targetClass._class(JMod.PUBLIC | JMod.STATIC, propertyName + "Adapter");
+		}
+		catch (JClassAlreadyExistsException e) {
+			logger.warn("Deferred parsing is not applicable to " + fieldReference + " as class "
+			            + e.getExistingClass().fullName() + " already exists.");
+			return false;
+		}
+
+		logger.debug("Applying deferred parsing to " + fieldReference + "...");
+
+		// GENERATED CODE: public static class FieldNameAdapter extends DeferredListAdapter<T> {
+		//                     public FieldNameAdapter() { super(T.class, new QName("...", "...")); } }
+		adapterClass._extends(codeModel.ref(CommonConfiguration.DEFERRED_LIST_ADAPTER_CLASS_NAME).narrow(itemClass));
+		adapterClass.javadoc().add("Adapts {@code " + fieldName + "} wrapper element to the list of {@link "
+		            + itemClass.name() + "} items, which are parsed on first access.");
+
+		adapterClass.constructor(JMod.PUBLIC).body().invoke("super").arg(itemClass.dotclass())
+		            .arg(JExpr._new(codeModel.ref(QName.class)).arg(itemDeclaration.getTargetNamespace())
+		                        .arg(itemDeclaration.getName()));
+
+		// GENERATED CODE: @XmlElement(name = "...", namespace = "...", required = ..., nillable = ...)
+		//                 @XmlJavaTypeAdapter(FieldNameAdapter.class) protected List<T> fieldName;
+		removeAnnotation(implField, getAnnotation(implField, codeModel.ref(XmlElement.class)));
+		removeAnnotation(implField, xmlElementWrapperAnnotation);
+
+		JAnnotationUse xmlElementAnnotation = implField.annotate(XmlElement.class);
+
+		// Members of @XmlElementWrapper have the same meaning and defaults:
+		for (String member : new String[] { "name", "namespace", "required", "nillable" }) {
+			JExpression value = getAnnotationMemberExpression(xmlElementWrapperAnnotation, member);
+
+			if (value != null) {
+				xmlElementAnnotation.param(member, value);
+			}
+		}
+
+		implField.annotate(XmlJavaTypeAdapter.class).param("value", adapterClass);
+
+		return true;
+	}
+
+	/**
+	 * Substitute the given field, which refers the candidate, with the {@link Map} field, which holds the key and value
+	 * properties of candidate items, as configured by {@code map} option. The field is bound to the candidate class via
+	 * generated {@link XmlJavaTypeAdapter}, hence the candidate class is not removed.
+	 * 
+	 * @return {@code true} if the field was substituted
+	 */
+	private boolean generateMapField(JCodeModel codeModel, Outline outline, ClassConfiguration configuration,
+	            JDefinedClass targetClass, FieldOutline field, Candidate candidate) {
+		CPropertyInfo fieldPropertyInfo = field.getPropertyInfo();
+		String fieldName = fieldPropertyInfo.getName(false);
+		String propertyName = fieldPropertyInfo.getName(true);
+		String fieldReference = targetClass.fullName() + "#" + fieldName;
+		JClass entryClass = candidate.getFieldClass().getTypeParameters().get(0);
+		ClassOutline entryClassOutline = getClassOutline(outline, entryClass);
+
+		if (entryClassOutline == null) {
+			logger.warn("Map is not applicable to " + fieldReference + " as items of type " + entryClass.name()
+			            + " have no properties.");
+			return false;
+		}
+
+		String[] mapPropertyNames = configuration.getMapPropertyNames().split(",");
+		CPropertyInfo keyPropertyInfo = findPropertyInfo(entryClassOutline.target, mapPropertyNames[0], null);
+		CPropertyInfo valuePropertyInfo = findPropertyInfo(entryClassOutline.target, mapPropertyNames[1], null);
+		JMethod keyGetterMethod = getGetterMethod(entryClassOutline, keyPropertyInfo);
+		JMethod valueGetterMethod = getGetterMethod(entryClassOutline, valuePropertyInfo);
+		JMethod keySetterMethod = getSetterMethod(entryClassOutline, keyPropertyInfo);
+		JMethod valueSetterMethod = getSetterMethod(entryClassOutline, valuePropertyInfo);
+
+		if (keyGetterMethod == null || valueGetterMethod == null || keySetterMethod == null
+		            || valueSetterMethod == null) {
+			logger.warn("Map is not applicable to " + fieldReference + " as " + entryClass.fullName()
+			            + " has no simple properties " + configuration.getMapPropertyNames() + ".");
+			return false;
+		}
+
+		JDefinedClass adapterClass;
+
+		try {
+			adapterClass = targetClass._class(JMod.PUBLIC | JMod.STATIC, propertyName + "Adapter");
+		}
+		catch (JClassAlreadyExistsException e) {
+			logger.warn("Map is not applicable to " + fieldReference + " as class " + e.getExistingClass().fullName()
+			            + " already exists.");
+			return false;
+		}
+
+		writeSummary("\tReplacing field [" + field.getRawType().name() + " " + fieldReference + "] with map");
+		logger.debug("Applying map of " + configuration.getMapPropertyNames() + " to " + fieldReference + "...");
+
+		JClass valueTypeClass = (JClass) field.getRawType();
+		JClass mapClass = codeModel.ref(Map.class).narrow(keyGetterMethod.type().boxify(),
+		            valueGetterMethod.type().boxify());
+		JClass mapEntryClass = codeModel.ref(Map.Entry.class).narrow(mapClass.getTypeParameters());
+		String itemsGetterMethodName = "get" + candidate.getFieldPropertyInfo().getName(true);
+
+		// GENERATED CODE: public static class FieldNameAdapter extends XmlAdapter<C, Map<K, V>> { ... }
+		adapterClass._extends(codeModel.ref(XmlAdapter.class).narrow(valueTypeClass, mapClass));
+		adapterClass.javadoc().add("Adapts {@link " + valueTypeClass.name() + "} to {@link Map} of "
+		            + keyPropertyInfo.getName(false) + " to " + valuePropertyInfo.getName(false) + ".");
+
+		// GENERATED CODE: public Map<K, V> unmarshal(C value) {
+		//                     if (value == null) return null;
+		//                     Map<K, V> map = new LinkedHashMap<>();
+		//                     for (T item : value.getItems()) map.put(item.getKey(), item.getValue());
+		//                     return map; }
+		JMethod unmarshalMethod = adapterClass.method(JMod.PUBLIC, mapClass, "unmarshal");
+		JVar value = unmarshalMethod.param(valueTypeClass, "value");
+
+		unmarshalMethod.annotate(Override.class);
+		unmarshalMethod.body()._if(value.eq(JExpr._null()))._then()._return(JExpr._null());
+
+		JVar map = unmarshalMethod.body().decl(mapClass, "map", JExpr._new(codeModel.ref(LinkedHashMap.class)
+		            .narrow(mapClass.getTypeParameters())));
+		JForEach forEach = unmarshalMethod.body().forEach(entryClass, "item", value.invoke(itemsGetterMethodName));
+
+		forEach.body().invoke(map, "put").arg(forEach.var().invoke(keyGetterMethod))
+		            .arg(forEach.var().invoke(valueGetterMethod));
+		unmarshalMethod.body()._return(map);
+
+		// GENERATED CODE: public C marshal(Map<K, V> map) {
+		//                     if (map == null) return null;
+		//                     C value = new C();
+		//                     for (Map.Entry<K, V> entry : map.entrySet()) {
+		//                         T item = new T(); item.setKey(entry.getKey()); item.setValue(entry.getValue());
+		//                         value.getItems().add(item); }
+		//                     return value; }
+		JMethod marshalMethod = adapterClass.method(JMod.PUBLIC, valueTypeClass, "marshal");
+		map = marshalMethod.param(mapClass, "map");
+
+		marshalMethod.annotate(Override.class);
+		marshalMethod.body()._if(map.eq(JExpr._null()))._then()._return(JExpr._null());
+
+		value = marshalMethod.body().decl(valueTypeClass, "value", JExpr._new(candidate.getClazz()));
+		forEach = marshalMethod.body().forEach(mapEntryClass, "entry", map.invoke("entrySet"));
+
+		JVar item = forEach.body().decl(entryClass, "item", JExpr._new(entryClassOutline.implClass));
+
+		forEach.body().invoke(item, keySetterMethod).arg(forEach.var().invoke("getKey"));
+		forEach.body().invoke(item, valueSetterMethod).arg(forEach.var().invoke("getValue"));
+		forEach.body().invoke(value.invoke(itemsGetterMethodName), "add").arg(item);
+		marshalMethod.body()._return(value);
+
+		// GENERATED CODE: @XmlJavaTypeAdapter(FieldNameAdapter.class) protected Map<K, V> fieldName;
+		JFieldVar implField = targetClass.fields().get(fieldName);
+
+		implField.type(mapClass);
+		implField.annotate(XmlJavaTypeAdapter.class).param("value", adapterClass);
+
+		setPrivateField(field, "exposedType", mapClass);
+
+		// Substitute getter and setter methods:
+		deleteSettersGetters(targetClass, propertyName);
+
+		JMethod getterMethod = targetClass.method(JMod.PUBLIC, mapClass, "get" + propertyName);
+		getterMethod.body()._return(JExpr.ref(fieldName));
+
+		JMethod setterMethod = targetClass.method(JMod.PUBLIC, codeModel.VOID, "set" + propertyName);
+		setterMethod.body().assign(JExpr._this().ref(fieldName), setterMethod.param(mapClass, fieldName));
+
+		for (Iterator<JClass> iter = targetClass._implements(); iter.hasNext();) {
+			JClass interfaceClass = iter.next();
+
+			if (interfaceClass instanceof JDefinedClass
+			            && deleteSettersGetters((JDefinedClass) interfaceClass, propertyName)) {
+				((JDefinedClass) interfaceClass).method(JMod.PUBLIC, mapClass, "get" + propertyName);
+				((JDefinedClass) interfaceClass).method(JMod.PUBLIC, codeModel.VOID, "set" + propertyName)
+				            .param(mapClass, fieldName);
+				break;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns the outline of given generated class (implementation class or interface), or {@code null} if the class is
+	 * not generated.
+	 */
+	private static ClassOutline getClassOutline(Outline outline, JClass clazz) {
+		for (ClassOutline classOutline : outline.getClasses()) {
+			if (classOutline.implClass == clazz || classOutline.ref == clazz) {
+				return classOutline;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns the getter method of given property declared in given class or its super class, or {@code null} if the
+	 * property is not found.
+	 */
+	private static JMethod getGetterMethod(ClassOutline classOutline, CPropertyInfo propertyInfo) {
+		if (propertyInfo == null) {
+			return null;
+		}
+
+		JMethod getterMethod = findMethod(classOutline.implClass, "get" + propertyInfo.getName(true), 0);
+
+		return getterMethod != null ? getterMethod
+		            : findMethod(classOutline.implClass, "is" + propertyInfo.getName(true), 0);
+	}
+
+	/**
+	 * Returns the setter method of given property declared in given class or its super class, or {@code null} if the
+	 * property is not found.
+	 */
+	private static JMethod getSetterMethod(ClassOutline classOutline, CPropertyInfo propertyInfo) {
+		if (propertyInfo == null) {
+			return null;
+		}
+
+		return findMethod(classOutline.implClass, "set" + propertyInfo.getName(true), 1);
+	}
+
+	/**
+	 * Returns the method with given name and number of parameters declared in given class or its super class.
+	 */
+	private static JMethod findMethod(JClass clazz, String methodName, int paramsCount) {
+		for (; clazz instanceof JDefinedClass; clazz = clazz._extends()) {
+			for (JMethod method : ((JDefinedClass) clazz).methods()) {
+				if (method.name().equals(methodName) && method.params().size() == paramsCount) {
+					return method;
+				}
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns the property of given class which is selected by XSD {@code xs:key} or {@code xs:unique} identity
+	 * constraint of the wrapper element of given field. Only constraints which select the item element (selector
+	 * {@code item}) by single attribute or child element (field {@code @id} or {@code id}) are supported.
+	 * 
+	 * @return the property or {@code null} if there is no suitable identity constraint
+	 */
+	private static CPropertyInfo getIdentityConstraintPropertyInfo(CPropertyInfo fieldPropertyInfo,
+	            CPropertyInfo candidateFieldPropertyInfo, CClassInfo itemClassInfo) {
+		XSDeclaration wrapperDeclaration = getXsdDeclaration(fieldPropertyInfo);
+		XSDeclaration itemDeclaration = getXsdDeclaration(candidateFieldPropertyInfo);
+
+		if (!(wrapperDeclaration instanceof XSElementDecl) || itemDeclaration == null) {
+			return null;
+		}
+
+		for (XSIdentityConstraint identityConstraint : ((XSElementDecl) wrapperDeclaration)
+		            .getIdentityConstraints()) {
+			if (identityConstraint.getCategory() == XSIdentityConstraint.KEYREF
+			            || identityConstraint.getFields().size() != 1) {
+				continue;
+			}
+
+			boolean selectsItem = false;
+
+			for (String step : identityConstraint.getSelector().getXPath().value.split("\\|")) {
+				selectsItem |= itemDeclaration.getName().equals(getXPathStepLocalName(step));
+			}
+
+			String field = identityConstraint.getFields().get(0).getXPath().value.trim();
+			boolean attribute = field.startsWith("@") || field.startsWith("attribute::");
+			// Field with several steps (e.g. "p:details/p:id") refers the property of nested class:
+			String fieldLocalName = getXPathStepLocalName(field);
+
+			if (selectsItem && fieldLocalName != null) {
+				CPropertyInfo keyPropertyInfo = findPropertyInfo(itemClassInfo, null,
+				            new QName(null, fieldLocalName, attribute ? "@" : ""));
+
+				if (keyPropertyInfo != null) {
+					return keyPropertyInfo;
+				}
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns the local name of the element or attribute selected by given XPath step (e.g. {@code "./p:item"} or
+	 * {@code "@id"}), or {@code null} if XPath has several steps.
+	 */
+	private static String getXPathStepLocalName(String xPath) {
+		String step = StringUtils.removeStart(xPath.trim(), "./");
+
+		step = StringUtils.removeStart(StringUtils.removeStart(step, "child::"), "attribute::");
+		step = StringUtils.removeStart(step, "@");
+
+		if (step.contains("/")) {
+			return null;
+		}
+
+		return step.substring(step.indexOf(':') + 1);
+	}
+
+	/**
+	 * Returns the property of given class (or its super class) with given Java name or given XML name. XML name of
+	 * attribute has prefix {@code "@"}.
+	 */
+	private static CPropertyInfo findPropertyInfo(CClassInfo classInfo, String name, QName xmlName) {
+		for (CClassInfo clazz = classInfo; clazz != null; clazz = clazz.getBaseClass()) {
+			for (CPropertyInfo propertyInfo : clazz.getProperties()) {
+				if (name != null) {
+					if (name.equals(propertyInfo.getName(false))) {
+						return propertyInfo;
+					}
+				}
+				else if (propertyInfo instanceof CAttributePropertyInfo) {
+					if (xmlName.getPrefix().equals("@") && xmlName.getLocalPart()
+					            .equals(((CAttributePropertyInfo) propertyInfo).getXmlName().getLocalPart())) {
+						return propertyInfo;
+					}
+				}
+				else if (propertyInfo instanceof CElementPropertyInfo) {
+					List<CTypeRef> types = ((CElementPropertyInfo) propertyInfo).getTypes();
+
+					if (xmlName.getPrefix().isEmpty() && types.size() == 1
+					            && xmlName.getLocalPart().equals(types.get(0).getTagName().getLocalPart())) {
+						return propertyInfo;
+					}
+				}
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Add the code which makes the given collection field unmodifiable after the class is unmarshalled to
+	 * {@code afterUnmarshal()} callback.
+	 */
+	private static void freezeCollection(JCodeModel codeModel, JDefinedClass targetClass, String fieldName,
+	            String unmodifiableMethodName) {
+		JMethod afterUnmarshalMethod = createUnmarshalCallback(codeModel, targetClass,
+		            AFTER_UNMARSHAL_METHOD_NAME, "Makes unmarshalled collections unmodifiable.");
+
+		// GENERATED CODE: if (fieldName != null) fieldName = Collections.unmodifiableList(fieldName);
+		JFieldRef field = JExpr._this().ref(fieldName);
+
+		afterUnmarshalMethod.body()._if(field.ne(JExpr._null()))._then().assign(field,
+		            codeModel.ref(Collections.class).staticInvoke(unmodifiableMethodName).arg(field));
+	}
+
+	/**
+	 * Add the code which trims the given collection field to its size after the class is unmarshalled to
+	 * {@code afterUnmarshal()} callback. Unmarshaller creates {@link ArrayList} for list property, unless the list is
+	 * instantiated by the class, hence the type of collection is checked at runtime. Compact collection is expected to
+	 * have {@code trimToSize()} method and a constructor accepting {@link Collection}; collection of other type is
+	 * converted to compact one.
+	 * 
+	 * @param compactCollectionClassName
+	 *            the name of compact collection class or {@code null} if compact collection is not used for the field
+	 * @return {@code true} if the code was added
+	 */
+	private boolean trimCollection(JCodeModel codeModel, JDefinedClass targetClass, String fieldName,
+	            String collectionInterfaceClassName, JClass itemClass, String compactCollectionClassName) {
+		JFieldRef field = JExpr._this().ref(fieldName);
+
+		if (compactCollectionClassName != null) {
+			JClass compactCollectionClass = refClass(codeModel, compactCollectionClassName);
+			JBlock body = createUnmarshalCallback(codeModel, targetClass, AFTER_UNMARSHAL_METHOD_NAME,
+			            "Trims unmarshalled collections to size.").body();
+
+			// GENERATED CODE: if (fieldName instanceof C) ((C<T>) fieldName).trimToSize();
+			//                 else if (fieldName != null) fieldName = new C<T>(fieldName);
+			JConditional conditional = body._if(field._instanceof(compactCollectionClass));
+
+			conditional._then().invoke(JExpr.cast(compactCollectionClass.narrow(itemClass), field), "trimToSize");
+			conditional._elseif(field.ne(JExpr._null()))._then().assign(field,
+			            JExpr._new(compactCollectionClass.narrow(itemClass)).arg(field));
+
+			return true;
+		}
+
+		Class<?> collectionInterfaceClass = loadClass(collectionInterfaceClassName);
+
+		if (collectionInterfaceClass == null || !collectionInterfaceClass.isAssignableFrom(ArrayList.class)) {
+			logger.warn("Trimming is not applicable to " + collectionInterfaceClassName + ".");
+			return false;
+		}
+
+		JClass arrayListClass = codeModel.ref(ArrayList.class);
+
+		// GENERATED CODE: if (fieldName instanceof ArrayList) ((ArrayList<T>) fieldName).trimToSize();
+		createUnmarshalCallback(codeModel, targetClass, AFTER_UNMARSHAL_METHOD_NAME,
+		            "Trims unmarshalled collections to size.").body()
+		            ._if(field._instanceof(arrayListClass))._then()
+		            .invoke(JExpr.cast(arrayListClass.narrow(itemClass), field), "trimToSize");
+
+		return true;
+	}
+
+	/**
+	 * Add the code which substitutes the given collection field with {@code BoundedList} (from plugin runtime companion
+	 * artifact) to {@code beforeUnmarshal()} callback, so that unmarshaller drops the items beyond the given limit
+	 * instead of exhausting the memory. The limit is checked when the item is added, hence the collection which is
+	 * within the limit is unmarshalled at the same cost as {@link ArrayList}. The code added to
+	 * {@code afterUnmarshal()} callback fails if the event handler decided to abort when the limit was exceeded, then
+	 * restores the substituted collection and copies the items into it (the collection is created if the document has
+	 * the items but the field is {@code null}), so that the collection type, instantiation mode and the absence of the
+	 * collection are preserved and the limit does not apply afterwards.
+	 * 
+	 * @param collectionClass
+	 *            the type of the collection field
+	 * @param newCollection
+	 *            expression which creates new collection instance
+	 * @return {@code true} if the callbacks were generated
+	 */
+	private boolean limitCollection(JCodeModel codeModel, JDefinedClass targetClass, String fieldName,
+	            String collectionInterfaceClassName, JClass collectionClass, JClass itemClass, JExpression newCollection,
+	            int limit) {
+		Class<?> collectionInterfaceClass = loadClass(collectionInterfaceClassName);
+
+		if (collectionInterfaceClass == null || !collectionInterfaceClass.isAssignableFrom(ArrayList.class)) {
+			logger.warn("Limit is not applicable to " + collectionInterfaceClassName + ".");
+			return false;
+		}
+
+		JClass boundedListClass = codeModel.ref(CommonConfiguration.BOUNDED_LIST_CLASS_NAME).narrow(itemClass);
+		JFieldRef field = JExpr._this().ref(fieldName);
+		JMethod beforeUnmarshalMethod = createUnmarshalCallback(codeModel, targetClass, BEFORE_UNMARSHAL_METHOD_NAME,
+		            "Limits the number of unmarshalled items.");
+
+		// GENERATED CODE: this.fieldName = new BoundedList<T>(limit, "Class#fieldName", this.fieldName, unmarshaller);
+		beforeUnmarshalMethod.body().assign(field, JExpr._new(boundedListClass).arg(JExpr.lit(limit))
+		            .arg(targetClass.fullName() + "#" + fieldName).arg(field)
+		            .arg(beforeUnmarshalMethod.params().get(0)));
+
+		// GENERATED CODE: if (this.fieldName instanceof BoundedList) {
+		//                   BoundedList<T> boundedList = (BoundedList<T>) this.fieldName;
+		//                   boundedList.checkLimit();
+		//                   this.fieldName = (I<T>) boundedList.getCollection();
+		//                   if (boundedList.isFilled()) {
+		//                     if (this.fieldName == null) this.fieldName = new C<T>(); else this.fieldName.clear();
+		//                     this.fieldName.addAll(boundedList); } }
+		JBlock restoreBlock = createUnmarshalCallback(codeModel, targetClass, AFTER_UNMARSHAL_METHOD_NAME,
+		            "Copies the items of limited collections to the collections of configured type.").body()
+		            ._if(field._instanceof(boundedListClass.erasure()))._then();
+		JVar boundedList = restoreBlock.decl(boundedListClass, "boundedList", JExpr.cast(boundedListClass, field));
+
+		restoreBlock.invoke(boundedList, "checkLimit");
+
+		restoreBlock.assign(field, JExpr.cast(collectionClass, boundedList.invoke("getCollection")));
+
+		JBlock filledBlock = restoreBlock._if(boundedList.invoke("isFilled"))._then();
+		JConditional conditional = filledBlock._if(field.eq(JExpr._null()));
+
+		conditional._then().assign(field, newCollection);
+		conditional._else().invoke(field, "clear");
+		filledBlock.invoke(field, "addAll").arg(boundedList);
+
+		return true;
+	}
+
+	/**
+	 * Unmarshaller invokes only the most specific {@code beforeUnmarshal()} / {@code afterUnmarshal()} callback, hence
+	 * the callback of the given class should call the callback of the super class, if any. The callback is also moved
+	 * after the accessors, which were added to the class after the callback was created.
+	 */
+	private static void chainUnmarshalCallbacks(JCodeModel codeModel, Set<JDefinedClass> classes,
+	            String callbackName) {
+		for (JDefinedClass clazz : classes) {
+			List<JMethod> methods = getPrivateField(clazz, "methods");
+			JMethod callbackMethod = getUnmarshalCallback(codeModel, clazz, callbackName);
+
+			methods.remove(callbackMethod);
+			methods.add(callbackMethod);
+
+			for (JClass superClass = clazz._extends(); superClass instanceof JDefinedClass; superClass = superClass
+			            ._extends()) {
+				JMethod superMethod = getUnmarshalCallback(codeModel, (JDefinedClass) superClass, callbackName);
+
+				if (superMethod != null) {
+					if ((superMethod.mods().getValue() & JMod.PRIVATE) == 0) {
+						List<JVar> params = callbackMethod.params();
+
+						// GENERATED CODE: super.afterUnmarshal(unmarshaller, parent);
+						callbackMethod.body().pos(0);
+						callbackMethod.body().invoke(JExpr._super(), callbackName).arg(params.get(0))
+						            .arg(params.get(1));
+						callbackMethod.body().pos(callbackMethod.body().getContents().size());
+					}
+
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns {@code beforeUnmarshal(Unmarshaller, Object)} or {@code afterUnmarshal(Unmarshaller, Object)} callback
+	 * (depending on the given name) of the given class. The callback is created, if the class does not have one. The
+	 * given sentence is added to the javadoc of the callback.
+	 */
+	private static JMethod createUnmarshalCallback(JCodeModel codeModel, JDefinedClass targetClass,
+	            String callbackName, String javadocSentence) {
+		JMethod callbackMethod = getUnmarshalCallback(codeModel, targetClass, callbackName);
+
+		if (callbackMethod == null) {
+			// GENERATED CODE: protected void afterUnmarshal(Unmarshaller unmarshaller, Object parent) { ... }
+			callbackMethod = targetClass.method(JMod.PROTECTED, codeModel.VOID, callbackName);
+			callbackMethod.param(codeModel.ref(Unmarshaller.class), "unmarshaller");
+			callbackMethod.param(codeModel.ref(Object.class), "parent");
+		}
+
+		JDocComment javadoc = callbackMethod.javadoc();
+
+		if (!javadoc.contains(javadocSentence)) {
+			if (!javadoc.isEmpty()) {
+				javadoc.add(" ");
+			}
+
+			javadoc.add(javadocSentence);
+		}
+
+		return callbackMethod;
+	}
+
+	/**
+	 * Returns unmarshal callback with the given name of the given class or {@code null}.
+	 */
+	private static JMethod getUnmarshalCallback(JCodeModel codeModel, JDefinedClass clazz, String callbackName) {
+		return clazz.getMethod(callbackName,
+		            new JType[] { codeModel.ref(Unmarshaller.class), codeModel.ref(Object.class) });
+	}
+
+	/**
+	 * Copy the javadoc (if any) of the given class method to the given interface method.
+	 */
+	private static void copyJavadoc(JMethod method, JMethod interfaceMethod) {
+		// Javadoc is created on first access, hence check the field:
+		JDocComment javadoc = getPrivateField(method, "jdoc");
+
+		if (javadoc != null) {
+			interfaceMethod.javadoc().addAll(javadoc);
+		}
+	}
+
+	/**
+	 * Returns the name of {@link Collections} method which returns an immutable empty collection assignable to the
+	 * given collection interface.
+	 * 
+	 * @return the method name or {@code null} if the collection interface is unknown
+	 */
+	private String getEmptyCollectionMethodName(String collectionInterfaceClassName) {
+		Class<?> collectionInterfaceClass = loadClass(collectionInterfaceClassName);
+
+		if (collectionInterfaceClass == null) {
+			return null;
+		}
+		else if (collectionInterfaceClass.isAssignableFrom(List.class)) {
+			return "emptyList";
+		}
+		else if (collectionInterfaceClass.isAssignableFrom(Set.class)) {
+			return "emptySet";
+		}
+		else if (collectionInterfaceClass.isAssignableFrom(NavigableSet.class)) {
+			return "emptyNavigableSet";
+		}
+
+		return null;
+	}
+
+	/**
+	 * Choose the instantiation mode for the collection which substitutes the given candidate: collection is created
+	 * together with the class only if wrapper element is required. Otherwise the collection is created on demand in
+	 * getter if wrapper element may have no items, or is not created at all (as wrapper element, if present, has at
+	 * least one item and unmarshaller creates the collection).
+	 * 
+	 * @param xmlElementAnnotation
+	 *            the {@code @XmlElement} annotation of the wrapper field (can be {@code null})
+	 */
+	private static CommonConfiguration.InstantiationMode getAutoInstantiationMode(JAnnotationUse xmlElementAnnotation,
+	            Candidate candidate) {
+		JExpression required = getAnnotationMemberExpression(xmlElementAnnotation, "required");
+
+		if (required != null && generableToString(required).equals("true")) {
+			return CommonConfiguration.InstantiationMode.EARLY;
+		}
+
+		if (getMinOccurs(candidate.getFieldPropertyInfo()) == 0) {
+			return CommonConfiguration.InstantiationMode.LAZY;
+		}
+
+		return CommonConfiguration.InstantiationMode.NONE;
+	}
+
+	/**
+	 * Returns the maximum number of items accepted on unmarshalling for the collection which substitutes the given
+	 * candidate: the configured limit is further restricted by XSD {@code maxOccurs}.
+	 * 
+	 * @return the limit or {@code -1} if the number of items should not be checked
+	 */
+	private static int getCollectionLimit(ClassConfiguration configuration, Candidate candidate) {
+		Integer configuredLimit = configuration.getLimit();
+
+		if (configuredLimit == null) {
+			return -1;
+		}
+
+		int maxOccurs = getMaxOccurs(candidate.getFieldPropertyInfo());
+
+		if (maxOccurs >= 0 && maxOccurs < configuredLimit.intValue()) {
+			return maxOccurs;
+		}
+
+		return configuredLimit.intValue() == Integer.MAX_VALUE ? -1 : configuredLimit.intValue();
+	}
+
+	/**
+	 * Returns the initial capacity for the collection which substitutes the given candidate. The capacity is either
+	 * configured explicitly or derived from XSD. It is applied only if the collection class has a constructor accepting
+	 * the capacity. If the collection class is not available on plugin classpath, only explicit capacity is applied.
+	 * 
+	 * @return the capacity or {@code -1} if default constructor should be used
+	 */
+	private int getCollectionCapacity(ClassConfiguration configuration, Candidate candidate) {
+		Integer configuredCapacity = configuration.getCapacity();
+		int capacity = configuredCapacity != null ? configuredCapacity.intValue()
+		            : getCapacityHint(candidate.getFieldPropertyInfo());
+
+		if (capacity < 0) {
+			return -1;
+		}
+
+		String collectionFactory = configuration.getCollectionFactory();
+
+		// Factory method overload accepting the capacity is applied only if it is known to exist, as for example
+		// factory method with varargs would silently create a collection with one item:
+		if (collectionFactory != null) {
+			Class<?> factoryClass = loadClass(StringUtils.substringBefore(collectionFactory, "#"));
+			String factoryMethodName = StringUtils.substringAfter(collectionFactory, "#");
+
+			if (factoryClass != null) {
+				for (Method method : getFactoryMethods(factoryClass, factoryMethodName)) {
+					if (Arrays.equals(method.getParameterTypes(), new Class<?>[] { int.class })) {
+						return capacity;
+					}
+				}
+			}
+
+			if (configuredCapacity != null) {
+				logger.warn("Capacity is ignored as " + collectionFactory + " is not known to accept the capacity.");
+			}
+
+			return -1;
+		}
+
+		Class<?> collectionImplClass = loadClass(configuration.getCollectionImplClassName());
+
+		if (collectionImplClass == null) {
+			return configuredCapacity != null ? capacity : -1;
+		}
+
+		try {
+			collectionImplClass.getConstructor(int.class);
+
+			return capacity;
+		}
+		catch (NoSuchMethodException e) {
+			if (configuredCapacity != null) {
+				logger.warn("Capacity is ignored as " + collectionImplClass.getName()
+				            + " has no constructor accepting the capacity.");
+			}
+
+			return -1;
+		}
+	}
+
+	/**
+	 * Returns {@code true} if compact collection should be used for the collection which substitutes the given
+	 * candidate: the number of items is bounded by XSD within compact threshold and the collection is created by
+	 * constructor. If compact collection class is not available on plugin classpath, it is assumed to be a
+	 * {@link List}.
+	 */
+	private boolean isCompactCollectionApplicable(ClassConfiguration configuration,
+	            String collectionInterfaceClassName, Candidate candidate) {
+		Integer compactThreshold = configuration.getCompactThreshold();
+		int maxOccurs = getMaxOccurs(candidate.getFieldPropertyInfo());
+
+		if (compactThreshold == null || configuration.getCollectionFactory() != null || maxOccurs < 0
+		            || maxOccurs > compactThreshold.intValue()) {
+			return false;
+		}
+
+		Class<?> collectionInterfaceClass = loadClass(collectionInterfaceClassName);
+		Class<?> compactCollectionClass = loadClass(configuration.getCompactCollectionClassName());
+
+		if (collectionInterfaceClass == null || !collectionInterfaceClass
+		            .isAssignableFrom(compactCollectionClass != null ? compactCollectionClass : List.class)) {
+			logger.warn("Compact collection is not applicable to " + collectionInterfaceClassName + ".");
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Create the expression which instantiates the collection with given capacity (if not negative) either using the
+	 * configured static factory method or the collection class constructor.
+	 */
+	private JInvocation newCollection(JCodeModel codeModel, ClassConfiguration configuration,
+	            JClass collectionImplClass, int capacity) {
+		String collectionFactory = configuration.getCollectionFactory();
+		JInvocation invocation = collectionFactory != null
+		            ? refClass(codeModel, StringUtils.substringBefore(collectionFactory, "#"))
+		                        .staticInvoke(StringUtils.substringAfter(collectionFactory, "#"))
+		            : JExpr._new(collectionImplClass);
+
+		if (capacity >= 0) {
+			invocation.arg(JExpr.lit(capacity));
+		}
+
+		return invocation;
+	}
+
+	/**
+	 * Write the names of all classes that remain in the model after the transformation in AppCDS class list format.
+	 * Classes are listed in the order they are expected to be loaded: Object Factories first, then classes reachable
+	 * from root elements via fields, type arguments (at any depth), array components and annotations (breadth first,
+	 * super types before sub types), then all other classes.
+	 */
+	private void writeClassList(JCodeModel codeModel, String fileName) throws IOException {
+		JClass xmlRegistryModelClass = codeModel.ref(XmlRegistry.class);
+		JClass xmlRootElementModelClass = codeModel.ref(XmlRootElement.class);
+		List<JDefinedClass> generatedClasses = getGeneratedClasses(codeModel);
+		Set<JClass> generatedClassesSet = new HashSet<JClass>(generatedClasses);
+		Set<JDefinedClass> loadedClasses = new LinkedHashSet<JDefinedClass>();
+		Set<JClass> visitedClasses = new HashSet<JClass>();
+		Queue<JClass> queue = new ArrayDeque<JClass>();
+
+		for (JDefinedClass clazz : generatedClasses) {
+			if (getAnnotation(clazz, xmlRegistryModelClass) != null) {
+				queue.add(clazz);
+			}
+		}
+
+		for (JDefinedClass clazz : generatedClasses) {
+			if (getAnnotation(clazz, xmlRootElementModelClass) != null) {
+				queue.add(clazz);
+			}
+		}
+
+		while (!queue.isEmpty()) {
+			JClass referredClass = queue.poll();
+
+			// Type arguments are followed at any depth, e.g. Foo in List<JAXBElement<Foo>>:
+			queue.addAll(referredClass.getTypeParameters());
+
+			if (referredClass.isArray() && referredClass.elementType() instanceof JClass) {
+				queue.add((JClass) referredClass.elementType());
+			}
+
+			JClass clazz = referredClass.erasure();
+
+			if (!generatedClassesSet.contains(clazz) || !visitedClasses.add(clazz)) {
+				continue;
+			}
+
+			JDefinedClass definedClass = (JDefinedClass) clazz;
+
+			addLoadedClass(loadedClasses, generatedClassesSet, definedClass);
+
+			if (definedClass._extends() != null) {
+				queue.add(definedClass._extends());
+			}
+
+			for (Iterator<JClass> iter = definedClass._implements(); iter.hasNext();) {
+				queue.add(iter.next());
+			}
+
+			// Object Factory refers all classes in the package, hence its fields are not followed:
+			if (getAnnotation(definedClass, xmlRegistryModelClass) != null) {
+				continue;
+			}
+
+			for (JFieldVar field : definedClass.fields().values()) {
+				if (field.type() instanceof JClass) {
+					queue.add((JClass) field.type());
+				}
+
+				queue.addAll(getAnnotationClassValues(field));
+			}
+
+			queue.addAll(getAnnotationClassValues(definedClass));
+		}
+
+		for (JDefinedClass clazz : generatedClasses) {
+			addLoadedClass(loadedClasses, generatedClassesSet, clazz);
+		}
+
+		PrintWriter writer = new PrintWriter(new OutputStreamWriter(new FileOutputStream(fileName), "UTF-8"));
+
+		try {
+			for (JDefinedClass clazz : loadedClasses) {
+				writer.println(clazz.binaryName().replace('.', '/'));
+			}
+		}
+		finally {
+			writer.close();
+		}
+
+		writeSummary("\t" + loadedClasses.size() + " class(es) written to class list " + fileName);
+		writeSummary("");
+	}
+
+	/**
+	 * Add the given class to the list of loaded classes making sure that its generated super types are added first.
+	 */
+	private static void addLoadedClass(Set<JDefinedClass> loadedClasses, Set<JClass> generatedClasses, JClass clazz) {
+		if (clazz == null || !generatedClasses.contains(clazz.erasure()) || loadedClasses.contains(clazz.erasure())) {
+			return;
+		}
+
+		JDefinedClass definedClass = (JDefinedClass) clazz.erasure();
+
+		addLoadedClass(loadedClasses, generatedClasses, definedClass._extends());
+
+		for (Iterator<JClass> iter = definedClass._implements(); iter.hasNext();) {
+			addLoadedClass(loadedClasses, generatedClasses, iter.next());
+		}
+
+		loadedClasses.add(definedClass);
+	}
+
+	/**
+	 * Returns the candidates from the given collection of classes referred e.g. as field parametrisation or in
+	 * annotation member. Each candidate is returned only once.
+	 */
+	private static Collection<Candidate> getReferredCandidates(Map<String, Candidate> candidatesMap,
+	            Collection<JClass> classes) {
+		Set<Candidate> candidates = new LinkedHashSet<Candidate>();
+
+		for (JClass clazz : classes) {
+			Candidate candidate = candidatesMap.get(clazz.erasure().fullName());
+
+			if (candidate != null) {
+				candidates.add(candidate);
+			}
+		}
+
+		return candidates;
 	}
 }
@@ -1,11 +1,22 @@
 package com.sun.tools.xjc.addon.xew.config;
 
 import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import javax.xml.namespace.QName;
 
+import com.sun.codemodel.JClass;
+import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JJavaName;
 import com.sun.tools.xjc.BadCommandLineException;
 import com.sun.tools.xjc.Options;
 import com.sun.tools.xjc.addon.xew.config.CommonConfiguration.ConfigurationOption;
@@ -32,8 +43,38 @@ public abstract class AbstractConfigurablePlugin extends AbstractParameterizable
 	private static final QName	  XEW_QNAME								 = new QName(
 	            "http://github.com/jaxb-xew-plugin", "xew");
 
+	/**
+	 * Fully qualified class name (nested classes are separated with dollar sign).
+	 */
+	private static final Pattern  CLASS_NAME_PATTERN					 = Pattern
+	            .compile("(\\p{javaJavaIdentifierStart}\\p{javaJavaIdentifierPart}*\\.)+"
+	                        + "\\p{javaJavaIdentifierStart}\\p{javaJavaIdentifierPart}*");
+
+	/**
+	 * Static factory method reference in form {@code ClassName#methodName}.
+	 */
+	private static final Pattern  COLLECTION_FACTORY_PATTERN			 = Pattern.compile(
+	            "(" + CLASS_NAME_PATTERN.pattern() + ")#(\\p{javaJavaIdentifierStart}\\p{javaJavaIdentifierPart}*)");
+
 	protected GlobalConfiguration globalConfiguration					 = new GlobalConfiguration();
 
+	/**
+	 * Pool of frozen class configurations shared between classes and fields having identical effective settings.
+	 */
+	private final Map<ClassConfiguration, ClassConfiguration> classConfigurations =
+	            new HashMap<ClassConfiguration, ClassConfiguration>();
+
+	/**
+	 * Shared class configuration for classes and fields without customization, created from global configuration.
+	 */
+	private ClassConfiguration	  defaultClassConfiguration;
+
+	/**
+	 * Collection classes resolved by name. The value is {@code null} if the class is not available on plugin
+	 * classpath.
+	 */
+	private final Map<String, Class<?>> resolvedClasses = new HashMap<String, Class<?>>();
+
 	public static final String	  COMMONS_LOGGING_LOG_LEVEL_PROPERTY_KEY = "org.apache.commons.logging.simplelog.defaultlog";
 
 	public AbstractConfigurablePlugin() {
@@ -160,11 +201,58 @@ public abstract class AbstractConfigurablePlugin extends AbstractParameterizable
 			globalConfiguration.setApplyPluralForm(true);
 			return 1;
 		}
+		else if (arg.equals(getArgumentName(ConfigurationOption.GENERATE_ACCESSORS.optionName()))) {
+			globalConfiguration.setGenerateAccessors(true);
+			return 1;
+		}
+		else if (arg.equals(getArgumentName(ConfigurationOption.UNMODIFIABLE.optionName()))) {
+			globalConfiguration.setUnmodifiable(true);
+			return 1;
+		}
+		else if (arg.equals(getArgumentName(ConfigurationOption.PRIMITIVE_ARRAYS.optionName()))) {
+			globalConfiguration.setPrimitiveArrays(true);
+			return 1;
+		}
+		else if (arg.equals(getArgumentName(ConfigurationOption.TRIM.optionName()))) {
+			globalConfiguration.setTrim(true);
+			return 1;
+		}
+		else if (arg.equals(getArgumentName(ConfigurationOption.UNWRAP_ELEMENT_REF.optionName()))) {
+			globalConfiguration.setUnwrapElementRef(true);
+			return 1;
+		}
+		else if (arg.equals(getArgumentName(ConfigurationOption.INDEX.optionName()))) {
+			globalConfiguration.setIndex(true);
+			return 1;
+		}
+		else if (arg.equals(getArgumentName(ConfigurationOption.RAW_ANY.optionName()))) {
+			globalConfiguration.setRawAny(true);
+			return 1;
+		}
+		else if (arg.equals(getArgumentName(ConfigurationOption.STREAM_READER.optionName()))) {
+			globalConfiguration.setStreamReader(true);
+			return 1;
+		}
+		else if (arg.equals(getArgumentName(ConfigurationOption.STREAM_WRITER.optionName()))) {
+			globalConfiguration.setStreamWriter(true);
+			return 1;
+		}
+		else if (arg.equals(getArgumentName(ConfigurationOption.DEFERRED.optionName()))) {
+			globalConfiguration.setDeferred(true);
+			return 1;
+		}
 		else if ((recognized = parseArgument(args, i, ConfigurationOption.CONTROL)) == 0
 		            && (recognized = parseArgument(args, i, ConfigurationOption.SUMMARY)) == 0
+		            && (recognized = parseArgument(args, i, ConfigurationOption.REFLECTION_CONFIG)) == 0
+		            && (recognized = parseArgument(args, i, ConfigurationOption.CLASS_LIST)) == 0
 		            && (recognized = parseArgument(args, i, ConfigurationOption.COLLECTION_INTERFACE)) == 0 // longer option name comes first
+		            && (recognized = parseArgument(args, i, ConfigurationOption.COLLECTION_FACTORY)) == 0
 		            && (recognized = parseArgument(args, i, ConfigurationOption.COLLECTION_IMPLEMENTATION)) == 0
-		            && (recognized = parseArgument(args, i, ConfigurationOption.INSTANTIATION_MODE)) == 0) {
+		            && (recognized = parseArgument(args, i, ConfigurationOption.INSTANTIATION_MODE)) == 0
+		            && (recognized = parseArgument(args, i, ConfigurationOption.CAPACITY)) == 0
+		            && (recognized = parseArgument(args, i, ConfigurationOption.COMPACT_THRESHOLD)) == 0
+		            && (recognized = parseArgument(args, i, ConfigurationOption.COMPACT_COLLECTION)) == 0
+		            && (recognized = parseArgument(args, i, ConfigurationOption.LIMIT)) == 0) {
 			if (arg.startsWith(getArgumentName(""))) {
 				throw new BadCommandLineException("Invalid argument " + arg);
 			}
@@ -178,7 +266,7 @@ public abstract class AbstractConfigurablePlugin extends AbstractParameterizable
 	 * Note that depending on configuration level (global, class, property) not every option is applicable (in that case
 	 * {@link IllegalArgumentException} is thrown).
 	 */
-	private static void applyConfigurationOption(CommonConfiguration configuration, ConfigurationOption option,
+	private void applyConfigurationOption(CommonConfiguration configuration, ConfigurationOption option,
 	            String value) throws IOException, ClassNotFoundException {
 		switch (option) {
 		case CONTROL:
@@ -193,43 +281,255 @@ public abstract class AbstractConfigurablePlugin extends AbstractParameterizable
 			}
 			((GlobalConfiguration) configuration).initSummaryWriter(value);
 			break;
+		case REFLECTION_CONFIG:
+			if (!(configuration instanceof GlobalConfiguration)) {
+				throw new IllegalArgumentException("The option " + option + " is not applicable");
+			}
+			((GlobalConfiguration) configuration).setReflectionConfigFileName(value);
+			break;
+		case CLASS_LIST:
+			if (!(configuration instanceof GlobalConfiguration)) {
+				throw new IllegalArgumentException("The option " + option + " is not applicable");
+			}
+			((GlobalConfiguration) configuration).setClassListFileName(value);
+			break;
 		case COLLECTION_IMPLEMENTATION:
-			configuration.setCollectionImplClass(Class.forName(value));
+			configuration.setCollectionImplClassName(validateCollectionClassName(value));
 			break;
 		case COLLECTION_INTERFACE:
-			configuration.setCollectionInterfaceClass(Class.forName(value));
+			configuration.setCollectionInterfaceClassName(
+			            value.equals(CommonConfiguration.COLLECTION_INTERFACE_ARRAY) ? value
+			                        : validateCollectionClassName(value));
+			break;
+		case COLLECTION_FACTORY:
+			configuration.setCollectionFactory(validateCollectionFactory(value));
 			break;
 		case INSTANTIATION_MODE:
 			try {
-				configuration.setInstantiationMode(CommonConfiguration.InstantiationMode.valueOf(value.toUpperCase()));
+				configuration.setInstantiationMode(CommonConfiguration.InstantiationMode.byOption(value));
 			}
 			catch (IllegalArgumentException e) {
 				throw new IllegalArgumentException("Unknown instantiation mode \"" + value + "\"");
 			}
 			break;
+		case CAPACITY:
+			try {
+				configuration.setCapacity(Integer.valueOf(value));
+			}
+			catch (IllegalArgumentException e) {
+				throw new IllegalArgumentException("Invalid capacity \"" + value + "\"");
+			}
+			break;
+		case COMPACT_THRESHOLD:
+			try {
+				configuration.setCompactThreshold(Integer.valueOf(value));
+			}
+			catch (IllegalArgumentException e) {
+				throw new IllegalArgumentException("Invalid compact threshold \"" + value + "\"");
+			}
+			break;
+		case COMPACT_COLLECTION:
+			configuration.setCompactCollectionClassName(validateCollectionClassName(value));
+			break;
+		case LIMIT:
+			if (value.equals(CommonConfiguration.LIMIT_MAX_OCCURS)) {
+				configuration.setLimit(Integer.valueOf(Integer.MAX_VALUE));
+				break;
+			}
+
+			try {
+				configuration.setLimit(Integer.valueOf(value));
+			}
+			catch (IllegalArgumentException e) {
+				throw new IllegalArgumentException("Invalid limit \"" + value + "\"");
+			}
+			break;
 		case APPLY_PLURAL_FORM:
 			configuration.setApplyPluralForm(Boolean.parseBoolean(value));
 			break;
+		case GENERATE_ACCESSORS:
+			configuration.setGenerateAccessors(Boolean.parseBoolean(value));
+			break;
+		case UNMODIFIABLE:
+			configuration.setUnmodifiable(Boolean.parseBoolean(value));
+			break;
+		case PRIMITIVE_ARRAYS:
+			configuration.setPrimitiveArrays(Boolean.parseBoolean(value));
+			break;
+		case TRIM:
+			configuration.setTrim(Boolean.parseBoolean(value));
+			break;
+		case UNWRAP_ELEMENT_REF:
+			configuration.setUnwrapElementRef(Boolean.parseBoolean(value));
+			break;
+		case INDEX:
+			configuration.setIndex(Boolean.parseBoolean(value));
+			break;
+		case RAW_ANY:
+			configuration.setRawAny(Boolean.parseBoolean(value));
+			break;
+		case STREAM_READER:
+			configuration.setStreamReader(Boolean.parseBoolean(value));
+			break;
+		case STREAM_WRITER:
+			configuration.setStreamWriter(Boolean.parseBoolean(value));
+			break;
+		case DEFERRED:
+			configuration.setDeferred(Boolean.parseBoolean(value));
+			break;
+		case KEY:
+			if (!(configuration instanceof ClassConfiguration)) {
+				throw new IllegalArgumentException("The option " + option + " is not applicable");
+			}
+			if (!JJavaName.isJavaIdentifier(value)) {
+				throw new IllegalArgumentException("Invalid key property name \"" + value + "\"");
+			}
+			((ClassConfiguration) configuration).setKeyPropertyName(value);
+			break;
+		case MAP:
+			if (!(configuration instanceof ClassConfiguration)) {
+				throw new IllegalArgumentException("The option " + option + " is not applicable");
+			}
+			String[] mapPropertyNames = value.split(",", -1);
+			if (mapPropertyNames.length != 2 || !JJavaName.isJavaIdentifier(mapPropertyNames[0].trim())
+			            || !JJavaName.isJavaIdentifier(mapPropertyNames[1].trim())) {
+				throw new IllegalArgumentException("Invalid map properties \"" + value + "\"");
+			}
+			((ClassConfiguration) configuration)
+			            .setMapPropertyNames(mapPropertyNames[0].trim() + "," + mapPropertyNames[1].trim());
+			break;
 		case ANNOTATE:
 			if (!(configuration instanceof ClassConfiguration)) {
 				throw new IllegalArgumentException("The option " + option + " is not applicable");
 			}
 			((ClassConfiguration) configuration).setAnnotatable(Boolean.parseBoolean(value));
 			break;
+		case SKIP:
+			if (!(configuration instanceof ClassConfiguration)) {
+				throw new IllegalArgumentException("The option " + option + " is not applicable");
+			}
+			((ClassConfiguration) configuration).setSkip(Boolean.parseBoolean(value));
+			break;
 		}
 	}
 
 	/**
-	 * Clone given configuration and apply settings from global/class/field JAXB customization.
+	 * Load (but not initialize) the class with the given name. The class which cannot be linked (e.g. because its
+	 * dependencies are missing on plugin classpath) is treated as not available.
+	 * 
+	 * @return the class or {@code null} if the class is not available on plugin classpath
+	 */
+	protected Class<?> loadClass(String className) {
+		if (resolvedClasses.containsKey(className)) {
+			return resolvedClasses.get(className);
+		}
+
+		Class<?> clazz;
+
+		try {
+			clazz = Class.forName(className, false, getClass().getClassLoader());
+		}
+		catch (ClassNotFoundException e) {
+			logger.debug("Class " + className + " is not available on plugin classpath and is referred by name.");
+			clazz = null;
+		}
+		catch (LinkageError e) {
+			logger.debug("Class " + className + " cannot be loaded (" + e + ") and is referred by name.");
+			clazz = null;
+		}
+
+		resolvedClasses.put(className, clazz);
+
+		return clazz;
+	}
+
+	/**
+	 * Returns the reference to the class with the given name. The class which is not available on plugin classpath is
+	 * referred by name, hence the name of nested class (separated with dollar sign) is converted to canonical one, as
+	 * otherwise the dollar sign would appear in generated source.
+	 */
+	protected JClass refClass(JCodeModel codeModel, String className) {
+		Class<?> clazz = loadClass(className);
+
+		return clazz != null ? codeModel.ref(clazz) : codeModel.ref(className.replace('$', '.'));
+	}
+
+	/**
+	 * Check that the given collection class name is fully qualified. The class does not need to be available on plugin
+	 * classpath (e.g. it could be runtime-only collection implementation), but if it is, it is checked to be a
+	 * collection with exactly one type parameter. Resolved classes are cached, as the same collection classes are
+	 * usually referred from many customizations.
+	 * 
+	 * @return the given class name
+	 */
+	private String validateCollectionClassName(String className) throws ClassNotFoundException {
+		if (!CLASS_NAME_PATTERN.matcher(className).matches()) {
+			throw new ClassNotFoundException("Class name " + className + " should be fully qualified");
+		}
+
+		Class<?> clazz = loadClass(className);
+
+		if (clazz != null && (!Collection.class.isAssignableFrom(clazz) || clazz.getTypeParameters().length != 1)) {
+			throw new IllegalArgumentException(
+			            "Class " + className + " should be a collection with exactly one type parameter");
+		}
+
+		return className;
+	}
+
+	/**
+	 * Check that the given collection factory refers a static method of fully qualified class. If the class is
+	 * available on plugin classpath, it is checked to have a public static method with given name.
+	 * 
+	 * @return the given collection factory
 	 */
-	protected static <T extends CommonConfiguration> T applyConfigurationFromCustomizations(
+	private String validateCollectionFactory(String collectionFactory) throws ClassNotFoundException {
+		Matcher matcher = COLLECTION_FACTORY_PATTERN.matcher(collectionFactory);
+
+		if (!matcher.matches()) {
+			throw new ClassNotFoundException(
+			            "Collection factory " + collectionFactory + " should be in form ClassName#methodName");
+		}
+
+		Class<?> clazz = loadClass(matcher.group(1));
+
+		if (clazz != null && getFactoryMethods(clazz, matcher.group(3)).isEmpty()) {
+			throw new IllegalArgumentException(
+			            "Class " + clazz.getName() + " has no public static method " + matcher.group(3));
+		}
+
+		return collectionFactory;
+	}
+
+	/**
+	 * Returns all public static methods with given name declared by given class.
+	 */
+	protected static List<Method> getFactoryMethods(Class<?> clazz, String methodName) {
+		List<Method> methods = new ArrayList<Method>();
+
+		for (Method method : clazz.getMethods()) {
+			if (method.getName().equals(methodName) && Modifier.isStatic(method.getModifiers())) {
+				methods.add(method);
+			}
+		}
+
+		return methods;
+	}
+
+	/**
+	 * Apply settings from global/class/field JAXB customization to given configuration. In case
+	 * {@code cloneClassConfiguration} is {@code true} the given configuration is not modified and frozen
+	 * {@link ClassConfiguration} is returned, which is shared with all other classes/fields having the same effective
+	 * settings.
+	 */
+	protected <T extends CommonConfiguration> T applyConfigurationFromCustomizations(
 	            CommonConfiguration configuration, CCustomizations customizations, boolean cloneClassConfiguration)
 	            throws IOException, ClassNotFoundException {
 		CPluginCustomization customization = customizations.find(XEW_QNAME.getNamespaceURI(), XEW_QNAME.getLocalPart());
 
 		if (customization == null) {
 			if (cloneClassConfiguration) {
-				return (T) new ClassConfiguration(configuration);
+				return (T) getClassConfiguration(configuration);
 			}
 
 			return (T) configuration;
@@ -251,9 +551,50 @@ public abstract class AbstractConfigurablePlugin extends AbstractParameterizable
 			}
 		}
 
+		if (cloneClassConfiguration) {
+			return (T) internClassConfiguration((ClassConfiguration) configuration);
+		}
+
 		return (T) configuration;
 	}
 
+	/**
+	 * Returns the shared class configuration which has the same settings as the given configuration.
+	 */
+	private ClassConfiguration getClassConfiguration(CommonConfiguration configuration) {
+		// Class configurations are already shared:
+		if (configuration instanceof ClassConfiguration && configuration.isFrozen()) {
+			return (ClassConfiguration) configuration;
+		}
+
+		// Global configuration is not modified once class configurations are requested:
+		if (configuration == globalConfiguration) {
+			if (defaultClassConfiguration == null) {
+				defaultClassConfiguration = internClassConfiguration(new ClassConfiguration(configuration));
+			}
+
+			return defaultClassConfiguration;
+		}
+
+		return internClassConfiguration(new ClassConfiguration(configuration));
+	}
+
+	/**
+	 * Returns the instance from the pool which is equal to given configuration. If there is no such, the given
+	 * configuration is frozen and added to the pool.
+	 */
+	private ClassConfiguration internClassConfiguration(ClassConfiguration configuration) {
+		ClassConfiguration sharedConfiguration = classConfigurations.get(configuration);
+
+		if (sharedConfiguration == null) {
+			configuration.freeze();
+			classConfigurations.put(configuration, configuration);
+			sharedConfiguration = configuration;
+		}
+
+		return sharedConfiguration;
+	}
+
 	/**
 	 * Implements exception handling.
 	 */
@@ -4,7 +4,8 @@ import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
 /**
- * Per-class or per-field configuration.
+ * Per-class or per-field configuration. Once resolved, the configuration is frozen and shared between all classes and
+ * fields that have the same effective settings, hence instances are compared by value.
  */
 public class ClassConfiguration extends CommonConfiguration {
 
@@ -21,13 +22,62 @@ public class ClassConfiguration extends CommonConfiguration {
 	}
 
 	public void setAnnotatable(boolean annotate) {
-		configurationValues.put(ConfigurationOption.ANNOTATE, Boolean.valueOf(annotate));
+		putConfigurationValue(ConfigurationOption.ANNOTATE, Boolean.valueOf(annotate));
+	}
+
+	/**
+	 * Returns the value of {@code key} option. By default returns {@code null}.
+	 */
+	public String getKeyPropertyName() {
+		return (String) configurationValues.get(ConfigurationOption.KEY);
+	}
+
+	public void setKeyPropertyName(String keyPropertyName) {
+		putConfigurationValue(ConfigurationOption.KEY, keyPropertyName);
+	}
+
+	/**
+	 * Returns the value of {@code map} option, which is the names of key and value properties separated by comma (e.g.
+	 * {@code "name,value"}). By default returns {@code null}.
+	 */
+	public String getMapPropertyNames() {
+		return (String) configurationValues.get(ConfigurationOption.MAP);
+	}
+
+	public void setMapPropertyNames(String mapPropertyNames) {
+		putConfigurationValue(ConfigurationOption.MAP, mapPropertyNames);
+	}
+
+	/**
+	 * Returns the value of {@code skip} option. By default returns {@code false}.
+	 */
+	public boolean isSkip() {
+		return ObjectUtils.defaultIfNull((Boolean) configurationValues.get(ConfigurationOption.SKIP), Boolean.FALSE)
+		            .booleanValue();
+	}
+
+	public void setSkip(boolean skip) {
+		putConfigurationValue(ConfigurationOption.SKIP, Boolean.valueOf(skip));
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof ClassConfiguration
+		            && configurationValues.equals(((ClassConfiguration) obj).configurationValues);
+	}
+
+	@Override
+	public int hashCode() {
+		return configurationValues.hashCode();
 	}
 
 	@Override
 	protected ToStringBuilder appendProperties(ToStringBuilder builder) {
 		super.appendProperties(builder);
 		builder.append("excluded", isAnnotatable());
+		builder.append("keyProperty", getKeyPropertyName());
+		builder.append("mapProperties", getMapPropertyNames());
+		builder.append("skip", isSkip());
 
 		return builder;
 	}
@@ -22,6 +22,45 @@ public class CommonConfiguration {
 
 	protected Log								   logger;
 
+	/**
+	 * Value of {@code collectionInterface} option which substitutes collections with arrays.
+	 */
+	public static final String					   COLLECTION_INTERFACE_ARRAY = "array";
+
+	/**
+	 * Compact list implementation from plugin runtime companion artifact.
+	 */
+	public static final String					   COMPACT_LIST_CLASS_NAME	  =
+	            "com.sun.tools.xjc.addon.xew.runtime.CompactList";
+
+	/**
+	 * Wildcard content handler from plugin runtime companion artifact.
+	 */
+	public static final String					   RAW_XML_DOM_HANDLER_CLASS_NAME =
+	            "com.sun.tools.xjc.addon.xew.runtime.RawXmlDomHandler";
+
+	/**
+	 * Adapter of deferred collection from plugin runtime companion artifact.
+	 */
+	public static final String					   DEFERRED_LIST_ADAPTER_CLASS_NAME =
+	            "com.sun.tools.xjc.addon.xew.runtime.DeferredListAdapter";
+
+	/**
+	 * Bounded list implementation from plugin runtime companion artifact.
+	 */
+	public static final String					   BOUNDED_LIST_CLASS_NAME	  =
+	            "com.sun.tools.xjc.addon.xew.runtime.BoundedList";
+
+	/**
+	 * Value of {@code limit} option which limits only the collections bounded by XSD {@code maxOccurs}.
+	 */
+	public static final String					   LIMIT_MAX_OCCURS			  = "maxOccurs";
+
+	/**
+	 * Frozen configuration cannot be modified and hence can be shared.
+	 */
+	private boolean								   frozen;
+
 	/**
 	 * Types of configuration options.
 	 */
@@ -46,6 +85,11 @@ public class CommonConfiguration {
 		 */
 		COLLECTION_INTERFACE("collectionInterface"),
 
+		/**
+		 * Static factory method which creates the collection instance.
+		 */
+		COLLECTION_FACTORY("collectionFactory"),
+
 		/**
 		 * Instantiation mode.
 		 */
@@ -58,10 +102,105 @@ public class CommonConfiguration {
 		 */
 		APPLY_PLURAL_FORM("plural"),
 
+		/**
+		 * Generate null-safe accessors which do not allocate the collection on read.
+		 */
+		GENERATE_ACCESSORS("accessors"),
+
+		/**
+		 * Expose the collection as unmodifiable: setter stores a copy, unmarshalled collection is frozen.
+		 */
+		UNMODIFIABLE("unmodifiable"),
+
+		/**
+		 * Substitute collections of boxed primitives with primitive arrays.
+		 */
+		PRIMITIVE_ARRAYS("primitive"),
+
+		/**
+		 * Trim the unmarshalled collection to its size.
+		 */
+		TRIM("trim"),
+
+		/**
+		 * Bind the items of single element reference directly instead of wrapping them into {@code JAXBElement}.
+		 */
+		UNWRAP_ELEMENT_REF("unwrapElementRef"),
+
+		/**
+		 * Generate lookup of items by the key declared by XSD identity constraint.
+		 */
+		INDEX("index"),
+
+		/**
+		 * Capture the items of wildcard ({@code xs:any}) collection as raw XML text instead of DOM trees.
+		 */
+		RAW_ANY("rawAny"),
+
+		/**
+		 * Generate the method which streams the items of wrapped collection from {@code XMLStreamReader}.
+		 */
+		STREAM_READER("streamReader"),
+
+		/**
+		 * Generate the method which writes the items of wrapped collection to {@code XMLStreamWriter}.
+		 */
+		STREAM_WRITER("streamWriter"),
+
+		/**
+		 * Capture the items of wrapped collection as raw XML and parse them on first access.
+		 */
+		DEFERRED("deferred"),
+
+		/**
+		 * Name of the item property which is used as a key for lookup of items.
+		 */
+		KEY("key"),
+
+		/**
+		 * Names of the item properties which are used as a key and a value of the map substituting the collection.
+		 */
+		MAP("map"),
+
+		/**
+		 * Skip the wrapped collection on unmarshalling (bind it as transient).
+		 */
+		SKIP("skip"),
+
 		/**
 		 * Exclude class from being a candidate or field for being substituted.
 		 */
-		ANNOTATE("annotate");
+		ANNOTATE("annotate"),
+
+		/**
+		 * Initial capacity of instantiated collection.
+		 */
+		CAPACITY("capacity"),
+
+		/**
+		 * Maximum number of collection items (XSD {@code maxOccurs}) up to which compact collection is used.
+		 */
+		COMPACT_THRESHOLD("compactThreshold"),
+
+		/**
+		 * Compact collection implementation class name.
+		 */
+		COMPACT_COLLECTION("compactCollection"),
+
+		/**
+		 * Maximum number of collection items accepted on unmarshalling.
+		 */
+		LIMIT("limit"),
+
+		/**
+		 * GraalVM reflection configuration file name.
+		 */
+		REFLECTION_CONFIG("reflectConfig"),
+
+		/**
+		 * AppCDS class list file name.
+		 */
+		CLASS_LIST("classList");
 
 		final String optionName;
 
@@ -101,11 +240,30 @@ public class CommonConfiguration {
 		 */
 		LAZY,
 
+		/**
+		 * Same as {@link #LAZY}, but the collection is safely published to other threads: the field is volatile and
+		 * initialized with double-checked locking.
+		 */
+		LAZY_CONCURRENT,
+
 		/**
 		 * Collection is never initialized. It's consumers responsibility to set the property to some collection
 		 * instance.
 		 */
-		NONE
+		NONE,
+
+		/**
+		 * Mode is chosen per property from XSD: {@link #EARLY} for required wrappers, {@link #LAZY} for optional
+		 * wrappers which may have no items and {@link #NONE} for other optional wrappers.
+		 */
+		AUTO;
+
+		/**
+		 * Resolve enum from option value (e.g. {@code lazyConcurrent}).
+		 */
+		public static InstantiationMode byOption(String value) {
+			return valueOf(value.replaceAll("([a-z])([A-Z])", "$1_$2").toUpperCase());
+		}
 	}
 
 	/**
@@ -127,14 +285,30 @@ public class CommonConfiguration {
 		/**
 		 * Given candidate class is not removed (kept) from model. Substitutions are nevertheless made.
 		 */
-		KEEP
+		KEEP,
+
+		/**
+		 * Fields referring given candidate class are substituted and skipped on unmarshalling (bound as transient).
+		 */
+		SKIP
 	}
 
 	public CommonConfiguration() {
-		configurationValues.put(ConfigurationOption.COLLECTION_IMPLEMENTATION, java.util.ArrayList.class);
-		configurationValues.put(ConfigurationOption.COLLECTION_INTERFACE, java.util.List.class);
+		configurationValues.put(ConfigurationOption.COLLECTION_IMPLEMENTATION, java.util.ArrayList.class.getName());
+		configurationValues.put(ConfigurationOption.COLLECTION_INTERFACE, java.util.List.class.getName());
 		configurationValues.put(ConfigurationOption.INSTANTIATION_MODE, InstantiationMode.EARLY);
+		configurationValues.put(ConfigurationOption.COMPACT_COLLECTION, COMPACT_LIST_CLASS_NAME);
 		configurationValues.put(ConfigurationOption.APPLY_PLURAL_FORM, Boolean.FALSE);
+		configurationValues.put(ConfigurationOption.GENERATE_ACCESSORS, Boolean.FALSE);
+		configurationValues.put(ConfigurationOption.UNMODIFIABLE, Boolean.FALSE);
+		configurationValues.put(ConfigurationOption.PRIMITIVE_ARRAYS, Boolean.FALSE);
+		configurationValues.put(ConfigurationOption.TRIM, Boolean.FALSE);
+		configurationValues.put(ConfigurationOption.UNWRAP_ELEMENT_REF, Boolean.FALSE);
+		configurationValues.put(ConfigurationOption.INDEX, Boolean.FALSE);
+		configurationValues.put(ConfigurationOption.RAW_ANY, Boolean.FALSE);
+		configurationValues.put(ConfigurationOption.STREAM_READER, Boolean.FALSE);
+		configurationValues.put(ConfigurationOption.STREAM_WRITER, Boolean.FALSE);
+		configurationValues.put(ConfigurationOption.DEFERRED, Boolean.FALSE);
 	}
 
 	public CommonConfiguration(CommonConfiguration configuration) {
@@ -143,25 +317,62 @@ public class CommonConfiguration {
 	}
 
 	/**
-	 * Returns the value of {@code collection} option. By default returns {@link java.util.ArrayList}.
+	 * Make this configuration immutable. Any following attempt to modify it results {@link IllegalStateException}.
+	 */
+	public void freeze() {
+		this.frozen = true;
+	}
+
+	public boolean isFrozen() {
+		return frozen;
+	}
+
+	/**
+	 * Set the value for given option checking that configuration is not frozen.
+	 */
+	protected final void putConfigurationValue(ConfigurationOption option, Object value) {
+		if (frozen) {
+			throw new IllegalStateException("Frozen configuration " + this + " cannot be modified");
+		}
+
+		configurationValues.put(option, value);
+	}
+
+	/**
+	 * Returns the value of {@code collection} option (fully qualified class name). By default returns
+	 * {@link java.util.ArrayList}. The class is not necessarily available on plugin classpath.
 	 */
-	public Class<?> getCollectionImplClass() {
-		return (Class<?>) configurationValues.get(ConfigurationOption.COLLECTION_IMPLEMENTATION);
+	public String getCollectionImplClassName() {
+		return (String) configurationValues.get(ConfigurationOption.COLLECTION_IMPLEMENTATION);
 	}
 
-	public void setCollectionImplClass(Class<?> collectionImplClass) {
-		configurationValues.put(ConfigurationOption.COLLECTION_IMPLEMENTATION, collectionImplClass);
+	public void setCollectionImplClassName(String collectionImplClassName) {
+		putConfigurationValue(ConfigurationOption.COLLECTION_IMPLEMENTATION, collectionImplClassName);
 	}
 
 	/**
-	 * Returns the value of {@code collectionInterface} option. By default returns {@link java.util.List}.
+	 * Returns the value of {@code collectionInterface} option (fully qualified class name or
+	 * {@link #COLLECTION_INTERFACE_ARRAY}). By default returns {@link java.util.List}. The class is not necessarily
+	 * available on plugin classpath.
 	 */
-	public Class<?> getCollectionInterfaceClass() {
-		return (Class<?>) configurationValues.get(ConfigurationOption.COLLECTION_INTERFACE);
+	public String getCollectionInterfaceClassName() {
+		return (String) configurationValues.get(ConfigurationOption.COLLECTION_INTERFACE);
 	}
 
-	public void setCollectionInterfaceClass(Class<?> collectionInterfaceClass) {
-		configurationValues.put(ConfigurationOption.COLLECTION_INTERFACE, collectionInterfaceClass);
+	public void setCollectionInterfaceClassName(String collectionInterfaceClassName) {
+		putConfigurationValue(ConfigurationOption.COLLECTION_INTERFACE, collectionInterfaceClassName);
+	}
+
+	/**
+	 * Returns the value of {@code collectionFactory} option in form {@code ClassName#methodName}. By default returns
+	 * {@code null}, meaning that collection implementation class constructor is used.
+	 */
+	public String getCollectionFactory() {
+		return (String) configurationValues.get(ConfigurationOption.COLLECTION_FACTORY);
+	}
+
+	public void setCollectionFactory(String collectionFactory) {
+		putConfigurationValue(ConfigurationOption.COLLECTION_FACTORY, collectionFactory);
 	}
 
 	/**
@@ -172,7 +383,68 @@ public class CommonConfiguration {
 	}
 
 	public void setInstantiationMode(InstantiationMode instantiationMode) {
-		configurationValues.put(ConfigurationOption.INSTANTIATION_MODE, instantiationMode);
+		putConfigurationValue(ConfigurationOption.INSTANTIATION_MODE, instantiationMode);
+	}
+
+	/**
+	 * Returns the value of {@code capacity} option. By default returns {@code null}, meaning that capacity is derived
+	 * from XSD.
+	 */
+	public Integer getCapacity() {
+		return (Integer) configurationValues.get(ConfigurationOption.CAPACITY);
+	}
+
+	public void setCapacity(Integer capacity) {
+		if (capacity != null && capacity.intValue() < 0) {
+			throw new IllegalArgumentException("Capacity should not be negative");
+		}
+
+		putConfigurationValue(ConfigurationOption.CAPACITY, capacity);
+	}
+
+	/**
+	 * Returns the value of {@code compactThreshold} option. By default returns {@code null}, meaning that compact
+	 * collection is not used.
+	 */
+	public Integer getCompactThreshold() {
+		return (Integer) configurationValues.get(ConfigurationOption.COMPACT_THRESHOLD);
+	}
+
+	public void setCompactThreshold(Integer compactThreshold) {
+		if (compactThreshold != null && compactThreshold.intValue() < 0) {
+			throw new IllegalArgumentException("Compact threshold should not be negative");
+		}
+
+		putConfigurationValue(ConfigurationOption.COMPACT_THRESHOLD, compactThreshold);
+	}
+
+	/**
+	 * Returns the value of {@code compactCollection} option (fully qualified class name). By default returns
+	 * {@link #COMPACT_LIST_CLASS_NAME}. The class is not necessarily available on plugin classpath.
+	 */
+	public String getCompactCollectionClassName() {
+		return (String) configurationValues.get(ConfigurationOption.COMPACT_COLLECTION);
+	}
+
+	public void setCompactCollectionClassName(String compactCollectionClassName) {
+		putConfigurationValue(ConfigurationOption.COMPACT_COLLECTION, compactCollectionClassName);
+	}
+
+	/**
+	 * Returns the value of {@code limit} option: the maximum number of items accepted on unmarshalling, which is further
+	 * restricted by XSD {@code maxOccurs}. {@link Integer#MAX_VALUE} means that only {@code maxOccurs} is enforced. By
+	 * default returns {@code null}, meaning that the number of items is not checked.
+	 */
+	public Integer getLimit() {
+		return (Integer) configurationValues.get(ConfigurationOption.LIMIT);
+	}
+
+	public void setLimit(Integer limit) {
+		if (limit != null && limit.intValue() < 0) {
+			throw new IllegalArgumentException("Limit should not be negative");
+		}
+
+		putConfigurationValue(ConfigurationOption.LIMIT, limit);
 	}
 
 	/**
@@ -183,7 +455,117 @@ public class CommonConfiguration {
 	}
 
 	public void setApplyPluralForm(boolean applyPluralForm) {
-		configurationValues.put(ConfigurationOption.APPLY_PLURAL_FORM, Boolean.valueOf(applyPluralForm));
+		putConfigurationValue(ConfigurationOption.APPLY_PLURAL_FORM, Boolean.valueOf(applyPluralForm));
+	}
+
+	/**
+	 * Returns the value of {@code accessors} option. By default returns {@code false}.
+	 */
+	public boolean isGenerateAccessors() {
+		return ((Boolean) configurationValues.get(ConfigurationOption.GENERATE_ACCESSORS)).booleanValue();
+	}
+
+	public void setGenerateAccessors(boolean generateAccessors) {
+		putConfigurationValue(ConfigurationOption.GENERATE_ACCESSORS, Boolean.valueOf(generateAccessors));
+	}
+
+	/**
+	 * Returns the value of {@code unmodifiable} option. By default returns {@code false}.
+	 */
+	public boolean isUnmodifiable() {
+		return ((Boolean) configurationValues.get(ConfigurationOption.UNMODIFIABLE)).booleanValue();
+	}
+
+	public void setUnmodifiable(boolean unmodifiable) {
+		putConfigurationValue(ConfigurationOption.UNMODIFIABLE, Boolean.valueOf(unmodifiable));
+	}
+
+	/**
+	 * Returns the value of {@code primitive} option. By default returns {@code false}.
+	 */
+	public boolean isPrimitiveArrays() {
+		return ((Boolean) configurationValues.get(ConfigurationOption.PRIMITIVE_ARRAYS)).booleanValue();
+	}
+
+	public void setPrimitiveArrays(boolean primitiveArrays) {
+		putConfigurationValue(ConfigurationOption.PRIMITIVE_ARRAYS, Boolean.valueOf(primitiveArrays));
+	}
+
+	/**
+	 * Returns the value of {@code trim} option. By default returns {@code false}.
+	 */
+	public boolean isTrim() {
+		return ((Boolean) configurationValues.get(ConfigurationOption.TRIM)).booleanValue();
+	}
+
+	public void setTrim(boolean trim) {
+		putConfigurationValue(ConfigurationOption.TRIM, Boolean.valueOf(trim));
+	}
+
+	/**
+	 * Returns the value of {@code unwrapElementRef} option. By default returns {@code false}.
+	 */
+	public boolean isUnwrapElementRef() {
+		return ((Boolean) configurationValues.get(ConfigurationOption.UNWRAP_ELEMENT_REF)).booleanValue();
+	}
+
+	public void setUnwrapElementRef(boolean unwrapElementRef) {
+		putConfigurationValue(ConfigurationOption.UNWRAP_ELEMENT_REF, Boolean.valueOf(unwrapElementRef));
+	}
+
+	/**
+	 * Returns the value of {@code index} option. By default returns {@code false}.
+	 */
+	public boolean isIndex() {
+		return ((Boolean) configurationValues.get(ConfigurationOption.INDEX)).booleanValue();
+	}
+
+	public void setIndex(boolean index) {
+		putConfigurationValue(ConfigurationOption.INDEX, Boolean.valueOf(index));
+	}
+
+	/**
+	 * Returns the value of {@code rawAny} option. By default returns {@code false}.
+	 */
+	public boolean isRawAny() {
+		return ((Boolean) configurationValues.get(ConfigurationOption.RAW_ANY)).booleanValue();
+	}
+
+	public void setRawAny(boolean rawAny) {
+		putConfigurationValue(ConfigurationOption.RAW_ANY, Boolean.valueOf(rawAny));
+	}
+
+	/**
+	 * Returns the value of {@code streamReader} option. By default returns {@code false}.
+	 */
+	public boolean isStreamReader() {
+		return ((Boolean) configurationValues.get(ConfigurationOption.STREAM_READER)).booleanValue();
+	}
+
+	public void setStreamReader(boolean streamReader) {
+		putConfigurationValue(ConfigurationOption.STREAM_READER, Boolean.valueOf(streamReader));
+	}
+
+	/**
+	 * Returns the value of {@code streamWriter} option. By default returns {@code false}.
+	 */
+	public boolean isStreamWriter() {
+		return ((Boolean) configurationValues.get(ConfigurationOption.STREAM_WRITER)).booleanValue();
+	}
+
+	public void setStreamWriter(boolean streamWriter) {
+		putConfigurationValue(ConfigurationOption.STREAM_WRITER, Boolean.valueOf(streamWriter));
+	}
+
+	/**
+	 * Returns the value of {@code deferred} option. By default returns {@code false}.
+	 */
+	public boolean isDeferred() {
+		return ((Boolean) configurationValues.get(ConfigurationOption.DEFERRED)).booleanValue();
+	}
+
+	public void setDeferred(boolean deferred) {
+		putConfigurationValue(ConfigurationOption.DEFERRED, Boolean.valueOf(deferred));
 	}
 
 	public void setLogger(Log logger) {
@@ -191,10 +573,25 @@ public class CommonConfiguration {
 	}
 
 	protected ToStringBuilder appendProperties(ToStringBuilder builder) {
-		builder.append("collectionImplClass", getCollectionImplClass().getName());
-		builder.append("collectionInterfaceClass", getCollectionInterfaceClass().getName());
+		builder.append("collectionImplClass", getCollectionImplClassName());
+		builder.append("collectionInterfaceClass", getCollectionInterfaceClassName());
+		builder.append("collectionFactory", getCollectionFactory());
 		builder.append("instantiationMode", getInstantiationMode());
+		builder.append("capacity", getCapacity());
+		builder.append("compactThreshold", getCompactThreshold());
+		builder.append("compactCollectionClass", getCompactCollectionClassName());
+		builder.append("limit", getLimit());
 		builder.append("applyPluralForm", isApplyPluralForm());
+		builder.append("generateAccessors", isGenerateAccessors());
+		builder.append("unmodifiable", isUnmodifiable());
+		builder.append("primitiveArrays", isPrimitiveArrays());
+		builder.append("trim", isTrim());
+		builder.append("unwrapElementRef", isUnwrapElementRef());
+		builder.append("index", isIndex());
+		builder.append("rawAny", isRawAny());
+		builder.append("streamReader", isStreamReader());
+		builder.append("streamWriter", isStreamWriter());
+		builder.append("deferred", isDeferred());
 
 		return builder;
 	}
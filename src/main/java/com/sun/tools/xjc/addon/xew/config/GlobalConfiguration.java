@@ -76,7 +76,7 @@ public class GlobalConfiguration extends CommonConfiguration {
 				                        : Pattern.compile(className, Pattern.LITERAL),
 				            controlMode));
 			}
-			configurationValues.put(ConfigurationOption.CONTROL, fileName);
+			putConfigurationValue(ConfigurationOption.CONTROL, fileName);
 		}
 		finally {
 			reader.close();
@@ -132,6 +132,19 @@ public class GlobalConfiguration extends CommonConfiguration {
 		return false;
 	}
 
+	/**
+	 * Returns {@code true} if fields referring given candidate class should be skipped on unmarshalling.
+	 */
+	public boolean isClassSkipped(String className) {
+		for (ControlEntry controlEntry : controlList) {
+			if (controlEntry.pattern.matcher(className).matches() && controlEntry.controlMode == ControlMode.SKIP) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
 	@Override
 	protected ToStringBuilder appendProperties(ToStringBuilder builder) {
 		super.appendProperties(builder);
@@ -146,7 +159,7 @@ public class GlobalConfiguration extends CommonConfiguration {
 	public void initSummaryWriter(String fileName) throws FileNotFoundException {
 		closeSummary();
 		summaryWriter = new PrintWriter(new FileOutputStream(fileName));
-		configurationValues.put(ConfigurationOption.SUMMARY, fileName);
+		putConfigurationValue(ConfigurationOption.SUMMARY, fileName);
 	}
 
 	/**
@@ -156,6 +169,30 @@ public class GlobalConfiguration extends CommonConfiguration {
 		return (String) configurationValues.get(ConfigurationOption.SUMMARY);
 	}
 
+	/**
+	 * Returns the name of the file to which GraalVM reflection configuration should be written or {@code null} if
+	 * reflection configuration is not requested.
+	 */
+	public String getReflectionConfigFileName() {
+		return (String) configurationValues.get(ConfigurationOption.REFLECTION_CONFIG);
+	}
+
+	public void setReflectionConfigFileName(String fileName) {
+		putConfigurationValue(ConfigurationOption.REFLECTION_CONFIG, fileName);
+	}
+
+	/**
+	 * Returns the name of the file to which AppCDS class list should be written or {@code null} if class list is not
+	 * requested.
+	 */
+	public String getClassListFileName() {
+		return (String) configurationValues.get(ConfigurationOption.CLASS_LIST);
+	}
+
+	public void setClassListFileName(String fileName) {
+		putConfigurationValue(ConfigurationOption.CLASS_LIST, fileName);
+	}
+
 	//
 	// Logging helpers
 	//
@@ -90,22 +90,22 @@ public class ObjectFactory {
 
     @XmlElementDecl(namespace = "http://foo.org/", name = "title", scope = AnyText.class)
     public JAXBElement<String> createAnyTextTitle(String value) {
-        return new JAXBElement<String>(new QName("http://foo.org/", "title"), String.class, AnyText.class, value);
+        return new JAXBElement<String>(_PrefixedTextTitle_QNAME, String.class, AnyText.class, value);
     }
 
     @XmlElementDecl(namespace = "http://foo.org/", name = "year", scope = AnyText.class)
     public JAXBElement<Integer> createAnyTextYear(Integer value) {
-        return new JAXBElement<Integer>(new QName("http://foo.org/", "year"), Integer.class, AnyText.class, value);
+        return new JAXBElement<Integer>(_FixedTextYear_QNAME, Integer.class, AnyText.class, value);
     }
 
     @XmlElementDecl(namespace = "http://foo.org/", name = "prefix", scope = AnyText.class)
     public JAXBElement<String> createAnyTextPrefix(String value) {
-        return new JAXBElement<String>(new QName("http://foo.org/", "prefix"), String.class, AnyText.class, value);
+        return new JAXBElement<String>(_PrefixedTextPrefix_QNAME, String.class, AnyText.class, value);
     }
 
     @XmlElementDecl(namespace = "http://foo.org/", name = "suffix", scope = AnyText.class)
     public JAXBElement<String> createAnyTextSuffix(String value) {
-        return new JAXBElement<String>(new QName("http://foo.org/", "suffix"), String.class, AnyText.class, value);
+        return new JAXBElement<String>(_PrefixedTextSuffix_QNAME, String.class, AnyText.class, value);
     }
 
 }
@@ -64,17 +64,17 @@ public class ObjectFactory {
 
     @XmlElementDecl(namespace = "http://example.com/scope", name = "name", scope = Return.class)
     public JAXBElement<String> createReturnName(String value) {
-        return new JAXBElement<String>(new QName("http://example.com/scope", "name"), String.class, Return.class, value);
+        return new JAXBElement<String>(_ReturnUsersName_QNAME, String.class, Return.class, value);
     }
 
     @XmlElementDecl(namespace = "http://example.com/scope", name = "age", scope = Return.class)
     public JAXBElement<String> createReturnAge(String value) {
-        return new JAXBElement<String>(new QName("http://example.com/scope", "age"), String.class, Return.class, value);
+        return new JAXBElement<String>(_ReturnUsersAge_QNAME, String.class, Return.class, value);
     }
 
     @XmlElementDecl(namespace = "http://example.com/scope", name = "id", scope = SearchParameters.class)
     public JAXBElement<List<String>> createSearchParametersId(List<String> value) {
-        return new JAXBElement<List<String>>(new QName("http://example.com/scope", "id"), ((Class) List.class), SearchParameters.class, value);
+        return new JAXBElement<List<String>>(_IdListId_QNAME, ((Class) List.class), SearchParameters.class, value);
     }
 
 }
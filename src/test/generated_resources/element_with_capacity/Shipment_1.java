@@ -0,0 +1,131 @@
+
+package element_with_capacity;
+
+import java.util.ArrayList;
+import java.util.List;
+import jakarta.xml.bind.Unmarshaller;
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlElementWrapper;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlType;
+
+
+/**
+ * <p>Java class for anonymous complex type.
+ * 
+ * <p>The following schema fragment specifies the expected content contained within this class.
+ * 
+ * <pre>{@code
+ * <complexType>
+ *   <complexContent>
+ *     <restriction base="{http://www.w3.org/2001/XMLSchema}anyType">
+ *       <sequence>
+ *         <element ref="{}boxes"/>
+ *         <element ref="{}pallets"/>
+ *         <element ref="{}labels"/>
+ *         <element ref="{}notes"/>
+ *         <element ref="{}crates"/>
+ *       </sequence>
+ *     </restriction>
+ *   </complexContent>
+ * </complexType>
+ * }</pre>
+ * 
+ * 
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "", propOrder = {
+    "boxes",
+    "pallets",
+    "labels",
+    "notes",
+    "crates"
+})
+@XmlRootElement(name = "shipment")
+public class Shipment {
+
+    @XmlElementWrapper(required = true)
+    @XmlElement(name = "box")
+    protected List<String> boxes = new com.sun.tools.xjc.addon.xew.runtime.CompactList<>();
+    @XmlElementWrapper(required = true)
+    @XmlElement(name = "pallet")
+    protected List<String> pallets = new ArrayList<>(20);
+    @XmlElementWrapper(required = true)
+    @XmlElement(name = "label")
+    protected List<String> labels = new ArrayList<>(32);
+    @XmlElementWrapper(required = true)
+    @XmlElement(name = "note")
+    protected List<String> notes = new ArrayList<>();
+    @XmlElementWrapper(required = true)
+    @XmlElement(name = "crate")
+    protected List<String> crates = new ArrayList<>(1024);
+
+    public List<String> getBoxes() {
+        return boxes;
+    }
+
+    public void setBoxes(List<String> boxes) {
+        this.boxes = boxes;
+    }
+
+    public List<String> getPallets() {
+        return pallets;
+    }
+
+    public void setPallets(List<String> pallets) {
+        this.pallets = pallets;
+    }
+
+    public List<String> getLabels() {
+        return labels;
+    }
+
+    public void setLabels(List<String> labels) {
+        this.labels = labels;
+    }
+
+    public List<String> getNotes() {
+        return notes;
+    }
+
+    public void setNotes(List<String> notes) {
+        this.notes = notes;
+    }
+
+    public List<String> getCrates() {
+        return crates;
+    }
+
+    public void setCrates(List<String> crates) {
+        this.crates = crates;
+    }
+
+    /**
+     * Trims unmarshalled collections to size.
+     * 
+     */
+    protected void afterUnmarshal(Unmarshaller unmarshaller, Object parent) {
+        if (this.boxes instanceof com.sun.tools.xjc.addon.xew.runtime.CompactList) {
+            ((com.sun.tools.xjc.addon.xew.runtime.CompactList<String> ) this.boxes).trimToSize();
+        } else {
+            if (this.boxes!= null) {
+                this.boxes = new com.sun.tools.xjc.addon.xew.runtime.CompactList<>(this.boxes);
+            }
+        }
+        if (this.pallets instanceof ArrayList) {
+            ((ArrayList<String> ) this.pallets).trimToSize();
+        }
+        if (this.labels instanceof ArrayList) {
+            ((ArrayList<String> ) this.labels).trimToSize();
+        }
+        if (this.notes instanceof ArrayList) {
+            ((ArrayList<String> ) this.notes).trimToSize();
+        }
+        if (this.crates instanceof ArrayList) {
+            ((ArrayList<String> ) this.crates).trimToSize();
+        }
+    }
+
+}
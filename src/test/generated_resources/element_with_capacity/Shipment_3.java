@@ -0,0 +1,104 @@
+
+package element_with_capacity;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlElementWrapper;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlType;
+
+
+/**
+ * <p>Java class for anonymous complex type.
+ * 
+ * <p>The following schema fragment specifies the expected content contained within this class.
+ * 
+ * <pre>{@code
+ * <complexType>
+ *   <complexContent>
+ *     <restriction base="{http://www.w3.org/2001/XMLSchema}anyType">
+ *       <sequence>
+ *         <element ref="{}boxes"/>
+ *         <element ref="{}pallets"/>
+ *         <element ref="{}labels"/>
+ *         <element ref="{}notes"/>
+ *         <element ref="{}crates"/>
+ *       </sequence>
+ *     </restriction>
+ *   </complexContent>
+ * </complexType>
+ * }</pre>
+ * 
+ * 
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "", propOrder = {
+    "boxes",
+    "pallets",
+    "labels",
+    "notes",
+    "crates"
+})
+@XmlRootElement(name = "shipment")
+public class Shipment {
+
+    @XmlElementWrapper(required = true)
+    @XmlElement(name = "box")
+    protected Set<String> boxes = ConcurrentHashMap.newKeySet(4);
+    @XmlElementWrapper(required = true)
+    @XmlElement(name = "pallet")
+    protected Set<String> pallets = ConcurrentHashMap.newKeySet(20);
+    @XmlElementWrapper(required = true)
+    @XmlElement(name = "label")
+    protected Set<String> labels = ConcurrentHashMap.newKeySet(32);
+    @XmlElementWrapper(required = true)
+    @XmlElement(name = "note")
+    protected Set<String> notes = ConcurrentHashMap.newKeySet();
+    @XmlElementWrapper(required = true)
+    @XmlElement(name = "crate")
+    protected Set<String> crates = ConcurrentHashMap.newKeySet(1024);
+
+    public Set<String> getBoxes() {
+        return boxes;
+    }
+
+    public void setBoxes(Set<String> boxes) {
+        this.boxes = boxes;
+    }
+
+    public Set<String> getPallets() {
+        return pallets;
+    }
+
+    public void setPallets(Set<String> pallets) {
+        this.pallets = pallets;
+    }
+
+    public Set<String> getLabels() {
+        return labels;
+    }
+
+    public void setLabels(Set<String> labels) {
+        this.labels = labels;
+    }
+
+    public Set<String> getNotes() {
+        return notes;
+    }
+
+    public void setNotes(Set<String> notes) {
+        this.notes = notes;
+    }
+
+    public Set<String> getCrates() {
+        return crates;
+    }
+
+    public void setCrates(Set<String> crates) {
+        this.crates = crates;
+    }
+
+}
@@ -0,0 +1,209 @@
+
+package element_with_capacity;
+
+import java.util.ArrayList;
+import java.util.List;
+import jakarta.xml.bind.Unmarshaller;
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlElementWrapper;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlType;
+
+
+/**
+ * <p>Java class for anonymous complex type.
+ * 
+ * <p>The following schema fragment specifies the expected content contained within this class.
+ * 
+ * <pre>{@code
+ * <complexType>
+ *   <complexContent>
+ *     <restriction base="{http://www.w3.org/2001/XMLSchema}anyType">
+ *       <sequence>
+ *         <element ref="{}boxes"/>
+ *         <element ref="{}pallets"/>
+ *         <element ref="{}labels"/>
+ *         <element ref="{}notes"/>
+ *         <element ref="{}crates"/>
+ *       </sequence>
+ *     </restriction>
+ *   </complexContent>
+ * </complexType>
+ * }</pre>
+ * 
+ * 
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "", propOrder = {
+    "boxes",
+    "pallets",
+    "labels",
+    "notes",
+    "crates"
+})
+@XmlRootElement(name = "shipment")
+public class Shipment {
+
+    @XmlElementWrapper(required = true)
+    @XmlElement(name = "box")
+    protected List<String> boxes = new ArrayList<>(4);
+    @XmlElementWrapper(required = true)
+    @XmlElement(name = "pallet")
+    protected List<String> pallets = new ArrayList<>(20);
+    @XmlElementWrapper(required = true)
+    @XmlElement(name = "label")
+    protected List<String> labels = new ArrayList<>(32);
+    @XmlElementWrapper(required = true)
+    @XmlElement(name = "note")
+    protected List<String> notes = new ArrayList<>();
+    @XmlElementWrapper(required = true)
+    @XmlElement(name = "crate")
+    protected List<String> crates = new ArrayList<>(1024);
+
+    /**
+     * At most 4 items are accepted on unmarshalling.
+     * 
+     */
+    public List<String> getBoxes() {
+        return boxes;
+    }
+
+    public void setBoxes(List<String> boxes) {
+        this.boxes = boxes;
+    }
+
+    /**
+     * At most 1000 items are accepted on unmarshalling.
+     * 
+     */
+    public List<String> getPallets() {
+        return pallets;
+    }
+
+    public void setPallets(List<String> pallets) {
+        this.pallets = pallets;
+    }
+
+    /**
+     * At most 1000 items are accepted on unmarshalling.
+     * 
+     */
+    public List<String> getLabels() {
+        return labels;
+    }
+
+    public void setLabels(List<String> labels) {
+        this.labels = labels;
+    }
+
+    /**
+     * At most 1000 items are accepted on unmarshalling.
+     * 
+     */
+    public List<String> getNotes() {
+        return notes;
+    }
+
+    public void setNotes(List<String> notes) {
+        this.notes = notes;
+    }
+
+    /**
+     * At most 1000 items are accepted on unmarshalling.
+     * 
+     */
+    public List<String> getCrates() {
+        return crates;
+    }
+
+    public void setCrates(List<String> crates) {
+        this.crates = crates;
+    }
+
+    /**
+     * Limits the number of unmarshalled items.
+     * 
+     */
+    protected void beforeUnmarshal(Unmarshaller unmarshaller, Object parent) {
+        this.boxes = new com.sun.tools.xjc.addon.xew.runtime.BoundedList<>(4, "element_with_capacity.Shipment#boxes", this.boxes, unmarshaller);
+        this.pallets = new com.sun.tools.xjc.addon.xew.runtime.BoundedList<>(1000, "element_with_capacity.Shipment#pallets", this.pallets, unmarshaller);
+        this.labels = new com.sun.tools.xjc.addon.xew.runtime.BoundedList<>(1000, "element_with_capacity.Shipment#labels", this.labels, unmarshaller);
+        this.notes = new com.sun.tools.xjc.addon.xew.runtime.BoundedList<>(1000, "element_with_capacity.Shipment#notes", this.notes, unmarshaller);
+        this.crates = new com.sun.tools.xjc.addon.xew.runtime.BoundedList<>(1000, "element_with_capacity.Shipment#crates", this.crates, unmarshaller);
+    }
+
+    /**
+     * Copies the items of limited collections to the collections of configured type.
+     * 
+     */
+    protected void afterUnmarshal(Unmarshaller unmarshaller, Object parent) {
+        if (this.boxes instanceof com.sun.tools.xjc.addon.xew.runtime.BoundedList) {
+            com.sun.tools.xjc.addon.xew.runtime.BoundedList<String> boundedList = ((com.sun.tools.xjc.addon.xew.runtime.BoundedList<String> ) this.boxes);
+            boundedList.checkLimit();
+            this.boxes = ((List<String> ) boundedList.getCollection());
+            if (boundedList.isFilled()) {
+                if (this.boxes == null) {
+                    this.boxes = new ArrayList<>(4);
+                } else {
+                    this.boxes.clear();
+                }
+                this.boxes.addAll(boundedList);
+            }
+        }
+        if (this.pallets instanceof com.sun.tools.xjc.addon.xew.runtime.BoundedList) {
+            com.sun.tools.xjc.addon.xew.runtime.BoundedList<String> boundedList = ((com.sun.tools.xjc.addon.xew.runtime.BoundedList<String> ) this.pallets);
+            boundedList.checkLimit();
+            this.pallets = ((List<String> ) boundedList.getCollection());
+            if (boundedList.isFilled()) {
+                if (this.pallets == null) {
+                    this.pallets = new ArrayList<>(20);
+                } else {
+                    this.pallets.clear();
+                }
+                this.pallets.addAll(boundedList);
+            }
+        }
+        if (this.labels instanceof com.sun.tools.xjc.addon.xew.runtime.BoundedList) {
+            com.sun.tools.xjc.addon.xew.runtime.BoundedList<String> boundedList = ((com.sun.tools.xjc.addon.xew.runtime.BoundedList<String> ) this.labels);
+            boundedList.checkLimit();
+            this.labels = ((List<String> ) boundedList.getCollection());
+            if (boundedList.isFilled()) {
+                if (this.labels == null) {
+                    this.labels = new ArrayList<>(32);
+                } else {
+                    this.labels.clear();
+                }
+                this.labels.addAll(boundedList);
+            }
+        }
+        if (this.notes instanceof com.sun.tools.xjc.addon.xew.runtime.BoundedList) {
+            com.sun.tools.xjc.addon.xew.runtime.BoundedList<String> boundedList = ((com.sun.tools.xjc.addon.xew.runtime.BoundedList<String> ) this.notes);
+            boundedList.checkLimit();
+            this.notes = ((List<String> ) boundedList.getCollection());
+            if (boundedList.isFilled()) {
+                if (this.notes == null) {
+                    this.notes = new ArrayList<>();
+                } else {
+                    this.notes.clear();
+                }
+                this.notes.addAll(boundedList);
+            }
+        }
+        if (this.crates instanceof com.sun.tools.xjc.addon.xew.runtime.BoundedList) {
+            com.sun.tools.xjc.addon.xew.runtime.BoundedList<String> boundedList = ((com.sun.tools.xjc.addon.xew.runtime.BoundedList<String> ) this.crates);
+            boundedList.checkLimit();
+            this.crates = ((List<String> ) boundedList.getCollection());
+            if (boundedList.isFilled()) {
+                if (this.crates == null) {
+                    this.crates = new ArrayList<>(1024);
+                } else {
+                    this.crates.clear();
+                }
+                this.crates.addAll(boundedList);
+            }
+        }
+    }
+
+}
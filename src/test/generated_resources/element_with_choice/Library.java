@@ -0,0 +1,80 @@
+
+package element_with_choice;
+
+import java.util.ArrayList;
+import java.util.List;
+import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlElementRef;
+import jakarta.xml.bind.annotation.XmlElementRefs;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlType;
+
+
+/**
+ * <p>Java class for anonymous complex type.
+ * 
+ * <p>The following schema fragment specifies the expected content contained within this class.
+ * 
+ * <pre>{@code
+ * <complexType>
+ *   <complexContent>
+ *     <restriction base="{http://www.w3.org/2001/XMLSchema}anyType">
+ *       <choice maxOccurs="unbounded" minOccurs="0">
+ *         <element name="novel" type="{}book"/>
+ *         <element name="poem" type="{}book"/>
+ *       </choice>
+ *     </restriction>
+ *   </complexContent>
+ * </complexType>
+ * }</pre>
+ * 
+ * 
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "", propOrder = {
+    "novelOrPoem"
+})
+@XmlRootElement(name = "library")
+public class Library {
+
+    @XmlElementRefs({
+        @XmlElementRef(name = "novel", type = JAXBElement.class, required = false),
+        @XmlElementRef(name = "poem", type = JAXBElement.class, required = false)
+    })
+    protected List<JAXBElement<Book>> novelOrPoem;
+
+    /**
+     * Gets the value of the novelOrPoem property.
+     * 
+     * <p>
+     * This accessor method returns a reference to the live list,
+     * not a snapshot. Therefore any modification you make to the
+     * returned list will be present inside the Jakarta XML Binding object.
+     * This is why there is not a {@code set} method for the novelOrPoem property.
+     * 
+     * <p>
+     * For example, to add a new item, do as follows:
+     * <pre>
+     *    getNovelOrPoem().add(newItem);
+     * </pre>
+     * 
+     * 
+     * <p>
+     * Objects of the following type(s) are allowed in the list
+     * {@link JAXBElement }{@code <}{@link Book }{@code >}
+     * {@link JAXBElement }{@code <}{@link Book }{@code >}
+     * 
+     * 
+     * @return
+     *     The value of the novelOrPoem property.
+     */
+    public List<JAXBElement<Book>> getNovelOrPoem() {
+        if (novelOrPoem == null) {
+            novelOrPoem = new ArrayList<>();
+        }
+        return this.novelOrPoem;
+    }
+
+}
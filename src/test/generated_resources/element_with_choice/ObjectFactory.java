@@ -0,0 +1,93 @@
+
+package element_with_choice;
+
+import javax.xml.namespace.QName;
+import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.annotation.XmlElementDecl;
+import jakarta.xml.bind.annotation.XmlRegistry;
+
+
+/**
+ * This object contains factory methods for each 
+ * Java content interface and Java element interface 
+ * generated in the element_with_choice package. 
+ * <p>An ObjectFactory allows you to programatically 
+ * construct new instances of the Java representation 
+ * for XML content. The Java representation of XML 
+ * content can consist of schema derived interfaces 
+ * and classes representing the binding of schema 
+ * type definitions, element declarations and model 
+ * groups.  Factory methods for each of these are 
+ * provided in this class.
+ * 
+ */
+@XmlRegistry
+public class ObjectFactory {
+
+    private final static QName _LibraryNovel_QNAME = new QName("", "novel");
+    private final static QName _LibraryPoem_QNAME = new QName("", "poem");
+
+    /**
+     * Create a new ObjectFactory that can be used to create new instances of schema derived classes for package: element_with_choice
+     * 
+     */
+    public ObjectFactory() {
+    }
+
+    /**
+     * Create an instance of {@link Library }
+     * 
+     * @return
+     *     the new instance of {@link Library }
+     */
+    public Library createLibrary() {
+        return new Library();
+    }
+
+    /**
+     * Create an instance of {@link Book }
+     * 
+     * @return
+     *     the new instance of {@link Book }
+     */
+    public Book createBook() {
+        return new Book();
+    }
+
+    /**
+     * Create an instance of {@link Author }
+     * 
+     * @return
+     *     the new instance of {@link Author }
+     */
+    public Author createAuthor() {
+        return new Author();
+    }
+
+    /**
+     * Create an instance of {@link JAXBElement }{@code <}{@link Book }{@code >}
+     * 
+     * @param value
+     *     Java instance representing xml element's value.
+     * @return
+     *     the new instance of {@link JAXBElement }{@code <}{@link Book }{@code >}
+     */
+    @XmlElementDecl(namespace = "", name = "novel", scope = Library.class)
+    public JAXBElement<Book> createLibraryNovel(Book value) {
+        return new JAXBElement<>(_LibraryNovel_QNAME, Book.class, Library.class, value);
+    }
+
+    /**
+     * Create an instance of {@link JAXBElement }{@code <}{@link Book }{@code >}
+     * 
+     * @param value
+     *     Java instance representing xml element's value.
+     * @return
+     *     the new instance of {@link JAXBElement }{@code <}{@link Book }{@code >}
+     */
+    @XmlElementDecl(namespace = "", name = "poem", scope = Library.class)
+    public JAXBElement<Book> createLibraryPoem(Book value) {
+        return new JAXBElement<>(_LibraryPoem_QNAME, Book.class, Library.class, value);
+    }
+
+}
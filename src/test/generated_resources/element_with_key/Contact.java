@@ -0,0 +1,62 @@
+
+package element_with_key;
+
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlType;
+
+
+/**
+ * <p>Java class for contact complex type.
+ * 
+ * <p>The following schema fragment specifies the expected content contained within this class.
+ * 
+ * <pre>{@code
+ * <complexType name="contact">
+ *   <complexContent>
+ *     <restriction base="{http://www.w3.org/2001/XMLSchema}anyType">
+ *       <sequence>
+ *         <element name="details" type="{}details"/>
+ *       </sequence>
+ *     </restriction>
+ *   </complexContent>
+ * </complexType>
+ * }</pre>
+ * 
+ * 
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "contact", propOrder = {
+    "details"
+})
+public class Contact {
+
+    @XmlElement(required = true)
+    protected Details details;
+
+    /**
+     * Gets the value of the details property.
+     * 
+     * @return
+     *     possible object is
+     *     {@link Details }
+     *     
+     */
+    public Details getDetails() {
+        return details;
+    }
+
+    /**
+     * Sets the value of the details property.
+     * 
+     * @param value
+     *     allowed object is
+     *     {@link Details }
+     *     
+     */
+    public void setDetails(Details value) {
+        this.details = value;
+    }
+
+}
@@ -0,0 +1,77 @@
+
+package element_with_key;
+
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlAttribute;
+import jakarta.xml.bind.annotation.XmlType;
+
+
+/**
+ * <p>Java class for line complex type.
+ * 
+ * <p>The following schema fragment specifies the expected content contained within this class.
+ * 
+ * <pre>{@code
+ * <complexType name="line">
+ *   <complexContent>
+ *     <restriction base="{http://www.w3.org/2001/XMLSchema}anyType">
+ *       <attribute name="number" use="required" type="{http://www.w3.org/2001/XMLSchema}int" />
+ *       <attribute name="quantity" type="{http://www.w3.org/2001/XMLSchema}int" />
+ *     </restriction>
+ *   </complexContent>
+ * </complexType>
+ * }</pre>
+ * 
+ * 
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "line")
+public class Line {
+
+    @XmlAttribute(name = "number", required = true)
+    protected int number;
+    @XmlAttribute(name = "quantity")
+    protected Integer quantity;
+
+    /**
+     * Gets the value of the number property.
+     * 
+     */
+    public int getNumber() {
+        return number;
+    }
+
+    /**
+     * Sets the value of the number property.
+     * 
+     */
+    public void setNumber(int value) {
+        this.number = value;
+    }
+
+    /**
+     * Gets the value of the quantity property.
+     * 
+     * @return
+     *     possible object is
+     *     {@link Integer }
+     *     
+     */
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Sets the value of the quantity property.
+     * 
+     * @param value
+     *     allowed object is
+     *     {@link Integer }
+     *     
+     */
+    public void setQuantity(Integer value) {
+        this.quantity = value;
+    }
+
+}
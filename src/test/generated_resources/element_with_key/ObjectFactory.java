@@ -0,0 +1,92 @@
+
+package element_with_key;
+
+import jakarta.xml.bind.annotation.XmlRegistry;
+
+
+/**
+ * This object contains factory methods for each 
+ * Java content interface and Java element interface 
+ * generated in the element_with_key package. 
+ * <p>An ObjectFactory allows you to programatically 
+ * construct new instances of the Java representation 
+ * for XML content. The Java representation of XML 
+ * content can consist of schema derived interfaces 
+ * and classes representing the binding of schema 
+ * type definitions, element declarations and model 
+ * groups.  Factory methods for each of these are 
+ * provided in this class.
+ * 
+ */
+@XmlRegistry
+public class ObjectFactory {
+
+
+    /**
+     * Create a new ObjectFactory that can be used to create new instances of schema derived classes for package: element_with_key
+     * 
+     */
+    public ObjectFactory() {
+    }
+
+    /**
+     * Create an instance of {@link Order }
+     * 
+     * @return
+     *     the new instance of {@link Order }
+     */
+    public Order createOrder() {
+        return new Order();
+    }
+
+    /**
+     * Create an instance of {@link Item }
+     * 
+     * @return
+     *     the new instance of {@link Item }
+     */
+    public Item createItem() {
+        return new Item();
+    }
+
+    /**
+     * Create an instance of {@link Party }
+     * 
+     * @return
+     *     the new instance of {@link Party }
+     */
+    public Party createParty() {
+        return new Party();
+    }
+
+    /**
+     * Create an instance of {@link Line }
+     * 
+     * @return
+     *     the new instance of {@link Line }
+     */
+    public Line createLine() {
+        return new Line();
+    }
+
+    /**
+     * Create an instance of {@link Contact }
+     * 
+     * @return
+     *     the new instance of {@link Contact }
+     */
+    public Contact createContact() {
+        return new Contact();
+    }
+
+    /**
+     * Create an instance of {@link Details }
+     * 
+     * @return
+     *     the new instance of {@link Details }
+     */
+    public Details createDetails() {
+        return new Details();
+    }
+
+}
@@ -0,0 +1,200 @@
+
+package element_with_key;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlElementWrapper;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlType;
+
+
+/**
+ * <p>Java class for anonymous complex type.
+ * 
+ * <p>The following schema fragment specifies the expected content contained within this class.
+ * 
+ * <pre>{@code
+ * <complexType>
+ *   <complexContent>
+ *     <restriction base="{http://www.w3.org/2001/XMLSchema}anyType">
+ *       <sequence>
+ *         <element ref="{}items"/>
+ *         <element ref="{}parties"/>
+ *         <element ref="{}lines"/>
+ *         <element ref="{}contacts"/>
+ *       </sequence>
+ *     </restriction>
+ *   </complexContent>
+ * </complexType>
+ * }</pre>
+ * 
+ * 
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "", propOrder = {
+    "items",
+    "parties",
+    "lines",
+    "contacts"
+})
+@XmlRootElement(name = "order")
+public class Order {
+
+    @XmlElementWrapper(required = true)
+    @XmlElement(name = "item")
+    protected List<Item> items = new ArrayList<>();
+    @XmlElementWrapper(required = true)
+    @XmlElement(name = "party")
+    protected List<Party> parties = new ArrayList<>();
+    @XmlElementWrapper(required = true)
+    @XmlElement(name = "line")
+    protected List<Line> lines = new ArrayList<>();
+    @XmlElementWrapper(required = true)
+    @XmlElement(name = "contact")
+    protected List<Contact> contacts = new ArrayList<>();
+    private transient Map<String, Item> itemsIndex;
+    private transient List<Item> itemsIndexSource;
+    private transient int itemsIndexSize;
+    private transient Map<String, Party> partiesIndex;
+    private transient List<Party> partiesIndexSource;
+    private transient int partiesIndexSize;
+    private transient Map<Integer, Line> linesIndex;
+    private transient List<Line> linesIndexSource;
+    private transient int linesIndexSize;
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Item> items) {
+        this.items = items;
+        this.itemsIndex = null;
+    }
+
+    private Map<String, Item> getItemsIndex(boolean rebuild) {
+        List<Item> collection = this.items;
+        if (collection == null) {
+            return Collections.emptyMap();
+        }
+        if (((rebuild||(this.itemsIndex == null))||(this.itemsIndexSource!= collection))||(this.itemsIndexSize!= collection.size())) {
+            Map<String, Item> index = new HashMap<>((((collection.size()* 4)/ 3)+ 1));
+            for (Item item: collection) {
+                if (item!= null) {
+                    index.putIfAbsent(item.getId(), item);
+                }
+            }
+            this.itemsIndex = index;
+            this.itemsIndexSource = collection;
+            this.itemsIndexSize = collection.size();
+        }
+        return this.itemsIndex;
+    }
+
+    /**
+     * Returns the first item of {@link #getItems()} with the given id or {@code null}. The lookup is backed by the index, which is built on first call and rebuilt when the collection is replaced via setter, its size is changed, the key is not found or the key of found item does not match, hence the lookup of missing key takes linear time. The item replaced in the collection can be still found until the index is rebuilt or the collection is set again. The index is not thread-safe.
+     * 
+     */
+    public Item findItemById(String key) {
+        Item item = getItemsIndex(false).get(key);
+        if ((item == null)||(!Objects.equals(key, item.getId()))) {
+            item = getItemsIndex(true).get(key);
+        }
+        return item;
+    }
+
+    public List<Party> getParties() {
+        return parties;
+    }
+
+    public void setParties(List<Party> parties) {
+        this.parties = parties;
+        this.partiesIndex = null;
+    }
+
+    private Map<String, Party> getPartiesIndex(boolean rebuild) {
+        List<Party> collection = this.parties;
+        if (collection == null) {
+            return Collections.emptyMap();
+        }
+        if (((rebuild||(this.partiesIndex == null))||(this.partiesIndexSource!= collection))||(this.partiesIndexSize!= collection.size())) {
+            Map<String, Party> index = new HashMap<>((((collection.size()* 4)/ 3)+ 1));
+            for (Party item: collection) {
+                if (item!= null) {
+                    index.putIfAbsent(item.getCode(), item);
+                }
+            }
+            this.partiesIndex = index;
+            this.partiesIndexSource = collection;
+            this.partiesIndexSize = collection.size();
+        }
+        return this.partiesIndex;
+    }
+
+    /**
+     * Returns the first item of {@link #getParties()} with the given code or {@code null}. The lookup is backed by the index, which is built on first call and rebuilt when the collection is replaced via setter, its size is changed, the key is not found or the key of found item does not match, hence the lookup of missing key takes linear time. The item replaced in the collection can be still found until the index is rebuilt or the collection is set again. The index is not thread-safe.
+     * 
+     */
+    public Party findPartyByCode(String key) {
+        Party item = getPartiesIndex(false).get(key);
+        if ((item == null)||(!Objects.equals(key, item.getCode()))) {
+            item = getPartiesIndex(true).get(key);
+        }
+        return item;
+    }
+
+    public List<Line> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<Line> lines) {
+        this.lines = lines;
+        this.linesIndex = null;
+    }
+
+    private Map<Integer, Line> getLinesIndex(boolean rebuild) {
+        List<Line> collection = this.lines;
+        if (collection == null) {
+            return Collections.emptyMap();
+        }
+        if (((rebuild||(this.linesIndex == null))||(this.linesIndexSource!= collection))||(this.linesIndexSize!= collection.size())) {
+            Map<Integer, Line> index = new HashMap<>((((collection.size()* 4)/ 3)+ 1));
+            for (Line item: collection) {
+                if (item!= null) {
+                    index.putIfAbsent(item.getNumber(), item);
+                }
+            }
+            this.linesIndex = index;
+            this.linesIndexSource = collection;
+            this.linesIndexSize = collection.size();
+        }
+        return this.linesIndex;
+    }
+
+    /**
+     * Returns the first item of {@link #getLines()} with the given number or {@code null}. The lookup is backed by the index, which is built on first call and rebuilt when the collection is replaced via setter, its size is changed, the key is not found or the key of found item does not match, hence the lookup of missing key takes linear time. The item replaced in the collection can be still found until the index is rebuilt or the collection is set again. The index is not thread-safe.
+     * 
+     */
+    public Line findLineByNumber(int key) {
+        Line item = getLinesIndex(false).get(key);
+        if ((item == null)||(!Objects.equals(key, item.getNumber()))) {
+            item = getLinesIndex(true).get(key);
+        }
+        return item;
+    }
+
+    public List<Contact> getContacts() {
+        return contacts;
+    }
+
+    public void setContacts(List<Contact> contacts) {
+        this.contacts = contacts;
+    }
+
+}
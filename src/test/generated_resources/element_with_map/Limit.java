@@ -0,0 +1,80 @@
+
+package element_with_map;
+
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlAttribute;
+import jakarta.xml.bind.annotation.XmlType;
+
+
+/**
+ * <p>Java class for limit complex type.
+ * 
+ * <p>The following schema fragment specifies the expected content contained within this class.
+ * 
+ * <pre>{@code
+ * <complexType name="limit">
+ *   <complexContent>
+ *     <restriction base="{http://www.w3.org/2001/XMLSchema}anyType">
+ *       <sequence>
+ *         <element name="max" type="{http://www.w3.org/2001/XMLSchema}long"/>
+ *       </sequence>
+ *       <attribute name="resource" use="required" type="{http://www.w3.org/2001/XMLSchema}string" />
+ *     </restriction>
+ *   </complexContent>
+ * </complexType>
+ * }</pre>
+ * 
+ * 
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "limit", propOrder = {
+    "max"
+})
+public class Limit {
+
+    protected long max;
+    @XmlAttribute(name = "resource", required = true)
+    protected String resource;
+
+    /**
+     * Gets the value of the max property.
+     * 
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Sets the value of the max property.
+     * 
+     */
+    public void setMax(long value) {
+        this.max = value;
+    }
+
+    /**
+     * Gets the value of the resource property.
+     * 
+     * @return
+     *     possible object is
+     *     {@link String }
+     *     
+     */
+    public String getResource() {
+        return resource;
+    }
+
+    /**
+     * Sets the value of the resource property.
+     * 
+     * @param value
+     *     allowed object is
+     *     {@link String }
+     *     
+     */
+    public void setResource(String value) {
+        this.resource = value;
+    }
+
+}
@@ -0,0 +1,82 @@
+
+package element_with_map;
+
+import jakarta.xml.bind.annotation.XmlRegistry;
+
+
+/**
+ * This object contains factory methods for each 
+ * Java content interface and Java element interface 
+ * generated in the element_with_map package. 
+ * <p>An ObjectFactory allows you to programatically 
+ * construct new instances of the Java representation 
+ * for XML content. The Java representation of XML 
+ * content can consist of schema derived interfaces 
+ * and classes representing the binding of schema 
+ * type definitions, element declarations and model 
+ * groups.  Factory methods for each of these are 
+ * provided in this class.
+ * 
+ */
+@XmlRegistry
+public class ObjectFactory {
+
+
+    /**
+     * Create a new ObjectFactory that can be used to create new instances of schema derived classes for package: element_with_map
+     * 
+     */
+    public ObjectFactory() {
+    }
+
+    /**
+     * Create an instance of {@link Properties }
+     * 
+     * @return
+     *     the new instance of {@link Properties }
+     */
+    public Properties createProperties() {
+        return new Properties();
+    }
+
+    /**
+     * Create an instance of {@link Settings }
+     * 
+     * @return
+     *     the new instance of {@link Settings }
+     */
+    public Settings createSettings() {
+        return new Settings();
+    }
+
+    /**
+     * Create an instance of {@link Properties.Property }
+     * 
+     * @return
+     *     the new instance of {@link Properties.Property }
+     */
+    public Properties.Property createPropertiesProperty() {
+        return new Properties.Property();
+    }
+
+    /**
+     * Create an instance of {@link Limits }
+     * 
+     * @return
+     *     the new instance of {@link Limits }
+     */
+    public Limits createLimits() {
+        return new Limits();
+    }
+
+    /**
+     * Create an instance of {@link Limit }
+     * 
+     * @return
+     *     the new instance of {@link Limit }
+     */
+    public Limit createLimit() {
+        return new Limit();
+    }
+
+}
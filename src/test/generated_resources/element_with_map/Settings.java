@@ -0,0 +1,160 @@
+
+package element_with_map;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlElementWrapper;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlType;
+import jakarta.xml.bind.annotation.adapters.XmlAdapter;
+import jakarta.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
+
+
+/**
+ * <p>Java class for anonymous complex type.
+ * 
+ * <p>The following schema fragment specifies the expected content contained within this class.
+ * 
+ * <pre>{@code
+ * <complexType>
+ *   <complexContent>
+ *     <restriction base="{http://www.w3.org/2001/XMLSchema}anyType">
+ *       <sequence>
+ *         <element ref="{}properties"/>
+ *         <element ref="{}limits"/>
+ *         <element ref="{}tags"/>
+ *       </sequence>
+ *     </restriction>
+ *   </complexContent>
+ * </complexType>
+ * }</pre>
+ * 
+ * 
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "", propOrder = {
+    "properties",
+    "limits",
+    "tags"
+})
+@XmlRootElement(name = "settings")
+public class Settings {
+
+    @XmlElement(required = true)
+    @XmlJavaTypeAdapter(Settings.PropertiesAdapter.class)
+    protected Map<String, String> properties;
+    @XmlElement(required = true)
+    @XmlJavaTypeAdapter(Settings.LimitsAdapter.class)
+    protected Map<String, Long> limits;
+    @XmlElementWrapper(required = true)
+    @XmlElement(name = "tag")
+    protected List<String> tags = new ArrayList<>();
+
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+
+    public void setProperties(Map<String, String> properties) {
+        this.properties = properties;
+    }
+
+    public Map<String, Long> getLimits() {
+        return limits;
+    }
+
+    public void setLimits(Map<String, Long> limits) {
+        this.limits = limits;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+
+
+    /**
+     * Adapts {@link Limits} to {@link Map} of resource to max.
+     * 
+     */
+    public static class LimitsAdapter
+        extends XmlAdapter<Limits, Map<String, Long>>
+    {
+
+
+        @Override
+        public Map<String, Long> unmarshal(Limits value) {
+            if (value == null) {
+                return null;
+            }
+            Map<String, Long> map = new LinkedHashMap<>();
+            for (Limit item: value.getLimit()) {
+                map.put(item.getResource(), item.getMax());
+            }
+            return map;
+        }
+
+        @Override
+        public Limits marshal(Map<String, Long> map) {
+            if (map == null) {
+                return null;
+            }
+            Limits value = new Limits();
+            for (Map.Entry<String, Long> entry: map.entrySet()) {
+                Limit item = new Limit();
+                item.setResource(entry.getKey());
+                item.setMax(entry.getValue());
+                value.getLimit().add(item);
+            }
+            return value;
+        }
+
+    }
+
+
+    /**
+     * Adapts {@link Properties} to {@link Map} of name to value.
+     * 
+     */
+    public static class PropertiesAdapter
+        extends XmlAdapter<Properties, Map<String, String>>
+    {
+
+
+        @Override
+        public Map<String, String> unmarshal(Properties value) {
+            if (value == null) {
+                return null;
+            }
+            Map<String, String> map = new LinkedHashMap<>();
+            for (Properties.Property item: value.getProperty()) {
+                map.put(item.getName(), item.getValue());
+            }
+            return map;
+        }
+
+        @Override
+        public Properties marshal(Map<String, String> map) {
+            if (map == null) {
+                return null;
+            }
+            Properties value = new Properties();
+            for (Map.Entry<String, String> entry: map.entrySet()) {
+                Properties.Property item = new Properties.Property();
+                item.setName(entry.getKey());
+                item.setValue(entry.getValue());
+                value.getProperty().add(item);
+            }
+            return value;
+        }
+
+    }
+
+}
@@ -0,0 +1,62 @@
+
+package element_with_nested_class;
+
+import jakarta.xml.bind.annotation.XmlRegistry;
+
+
+/**
+ * This object contains factory methods for each 
+ * Java content interface and Java element interface 
+ * generated in the element_with_nested_class package. 
+ * <p>An ObjectFactory allows you to programatically 
+ * construct new instances of the Java representation 
+ * for XML content. The Java representation of XML 
+ * content can consist of schema derived interfaces 
+ * and classes representing the binding of schema 
+ * type definitions, element declarations and model 
+ * groups.  Factory methods for each of these are 
+ * provided in this class.
+ * 
+ */
+@XmlRegistry
+public class ObjectFactory {
+
+
+    /**
+     * Create a new ObjectFactory that can be used to create new instances of schema derived classes for package: element_with_nested_class
+     * 
+     */
+    public ObjectFactory() {
+    }
+
+    /**
+     * Create an instance of {@link Team }
+     * 
+     * @return
+     *     the new instance of {@link Team }
+     */
+    public Team createTeam() {
+        return new Team();
+    }
+
+    /**
+     * Create an instance of {@link Awards }
+     * 
+     * @return
+     *     the new instance of {@link Awards }
+     */
+    public Awards createAwards() {
+        return new Awards();
+    }
+
+    /**
+     * Create an instance of {@link Team.Member }
+     * 
+     * @return
+     *     the new instance of {@link Team.Member }
+     */
+    public Team.Member createTeamMember() {
+        return new Team.Member();
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.sun.tools.xjc.addon.xew;
+
+import static com.sun.tools.xjc.addon.xew.CommonUtils.generableToString;
+import static com.sun.tools.xjc.addon.xew.CommonUtils.getAnnotationClassValues;
+import static com.sun.tools.xjc.addon.xew.CommonUtils.getAnnotationMemberExpression;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlElements;
+import jakarta.xml.bind.annotation.XmlNsForm;
+import jakarta.xml.bind.annotation.XmlSchema;
+
+import com.sun.codemodel.JAnnotationArrayMember;
+import com.sun.codemodel.JAnnotationUse;
+import com.sun.codemodel.JClass;
+import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JFieldVar;
+import com.sun.codemodel.JMod;
+import com.sun.codemodel.JPackage;
+
+import org.junit.Test;
+
+/**
+ * Testcases for {@link CommonUtils}.
+ */
+public class CommonUtilsTest {
+
+	@Test
+	public void testGetAnnotationMemberExpression() throws Exception {
+		JCodeModel codeModel = new JCodeModel();
+		JDefinedClass clazz = codeModel._class("a.Order");
+		JAnnotationUse annotation = clazz.field(JMod.PROTECTED, Object.class, "item").annotate(XmlElement.class)
+		            .param("name", "item").param("required", true).param("type", clazz);
+
+		assertEquals("item", generableToString(getAnnotationMemberExpression(annotation, "name")));
+		assertEquals("true", generableToString(getAnnotationMemberExpression(annotation, "required")));
+		// Class value is referred as class literal:
+		assertEquals("a.Order.class", generableToString(getAnnotationMemberExpression(annotation, "type")));
+		assertNull(getAnnotationMemberExpression(annotation, "namespace"));
+
+		// Enum constant is not a class value:
+		JAnnotationUse schemaAnnotation = codeModel._package("a").annotate(XmlSchema.class)
+		            .param("elementFormDefault", XmlNsForm.QUALIFIED);
+
+		assertEquals("jakarta.xml.bind.annotation.XmlNsForm.QUALIFIED",
+		            generableToString(getAnnotationMemberExpression(schemaAnnotation, "elementFormDefault")));
+	}
+
+	@Test
+	public void testGetAnnotationClassValues() throws Exception {
+		JCodeModel codeModel = new JCodeModel();
+		JDefinedClass clazz = codeModel._class("a.Order");
+		JDefinedClass itemClass = codeModel._class("a.Item");
+		JFieldVar field = clazz.field(JMod.PROTECTED, Object.class, "itemOrNote");
+		JAnnotationArrayMember elements = field.annotate(XmlElements.class).paramArray("value");
+
+		elements.annotate(XmlElement.class).param("name", "item").param("type", itemClass);
+		elements.annotate(XmlElement.class).param("name", "note").param("type", String.class);
+
+		assertEquals(Arrays.<JClass> asList(itemClass, codeModel.ref(String.class)), getAnnotationClassValues(field));
+
+		// Enum constant is not a class value:
+		JPackage pkg = codeModel._package("a");
+
+		pkg.annotate(XmlSchema.class).param("elementFormDefault", XmlNsForm.QUALIFIED);
+
+		assertEquals(Collections.emptyList(), getAnnotationClassValues(pkg));
+	}
+}
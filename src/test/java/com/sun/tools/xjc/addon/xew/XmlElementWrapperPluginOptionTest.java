@@ -0,0 +1,476 @@
+package com.sun.tools.xjc.addon.xew;
+
+import static com.sun.tools.xjc.addon.xew.XmlElementWrapperPluginTest.GENERATED_SOURCES_PREFIX;
+import static com.sun.tools.xjc.addon.xew.XmlElementWrapperPluginTest.runTest;
+import static org.custommonkey.xmlunit.XMLAssert.assertXMLEqual;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import com.sun.tools.xjc.addon.xew.config.CommonConfiguration;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+
+/**
+ * Testcases for the XEW Plugin options. Unlike {@link XmlElementWrapperPluginTest} the schemas are bound using Jakarta
+ * binding namespace, hence these testcases are run as part of the build.
+ */
+public class XmlElementWrapperPluginOptionTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidLimit() throws Exception {
+		runTest("element-list-extended", new String[] { "-Xxew:limit unbounded" }, false);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidCollectionClassArity() throws Exception {
+		runTest("element-list-extended", new String[] { "-Xxew:collection java.util.HashMap" }, false);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidCollectionFactory() throws Exception {
+		runTest("element-list-extended", new String[] { "-Xxew:collectionFactory java.util.Collections#newList" },
+		            false);
+	}
+
+	@Test
+	public void testReflectionConfig() throws Exception {
+		runTest("element-with-nested-class",
+		            new String[] { "-Xxew:reflectConfig " + GENERATED_SOURCES_PREFIX + "reflect-config.json" }, false,
+		            "Team", "Awards");
+
+		String reflectionConfig = FileUtils.readFileToString(new File(GENERATED_SOURCES_PREFIX + "reflect-config.json"),
+		            StandardCharsets.UTF_8);
+
+		assertTrue(reflectionConfig.contains("\"name\": \"element_with_nested_class.Team$Member\""));
+		assertTrue(reflectionConfig.contains("{ \"name\": \"createTeamMember\", \"parameterTypes\": [] }"));
+		// Removed candidate classes should not be present:
+		assertFalse(reflectionConfig.contains("element_with_nested_class.Team$Members"));
+		assertFalse(reflectionConfig.contains("element_with_nested_class.Team$History"));
+	}
+
+	@Test
+	public void testRetentionSummary() throws Exception {
+		runTest("element-with-nested-class",
+		            new String[] { "-Xxew:summary " + GENERATED_SOURCES_PREFIX + "summary.txt" }, false, "Team",
+		            "Awards");
+
+		String summary = FileUtils.readFileToString(new File(GENERATED_SOURCES_PREFIX + "summary.txt"),
+		            StandardCharsets.UTF_8);
+
+		// Candidate referred from @XmlElements of other candidate is kept and the reason is reported:
+		assertTrue(summary.contains("Keeping class element_with_nested_class.Awards: is used in "
+		            + "XmlElements/XmlElementRef of element_with_nested_class.Team.History#seasonOrNote"));
+		assertTrue(summary.contains("Removing class element_with_nested_class.Team.History"));
+	}
+
+	@Test
+	public void testClassList() throws Exception {
+		runTest("element-with-choice",
+		            new String[] { "-Xxew:classList " + GENERATED_SOURCES_PREFIX + "classlist.txt" }, false, "Library",
+		            "Book", "Author");
+
+		List<String> classList = FileUtils.readLines(new File(GENERATED_SOURCES_PREFIX + "classlist.txt"),
+		            StandardCharsets.UTF_8);
+
+		// Object Factory is loaded first, then classes reachable from root element. Book is reachable only via nested
+		// type argument of List<JAXBElement<Book>>, Author is reachable from Book:
+		assertEquals(Arrays.asList("element_with_choice/ObjectFactory", "element_with_choice/Library",
+		            "element_with_choice/Book", "element_with_choice/Author"), classList);
+	}
+
+	@Test
+	public void testElementWithCapacity() throws Exception {
+		runTest("element-with-capacity", null, false, "Shipment");
+
+		String shipment = FileUtils.readFileToString(
+		            new File(GENERATED_SOURCES_PREFIX + "element_with_capacity/Shipment.java"), StandardCharsets.UTF_8);
+
+		assertTrue(shipment.contains("boxes = new ArrayList<>(4);"));
+		assertTrue(shipment.contains("pallets = new ArrayList<>(20);"));
+		assertTrue(shipment.contains("labels = new ArrayList<>(32);"));
+		assertTrue(shipment.contains("notes = new ArrayList<>();"));
+		// Capacity derived from minOccurs is limited:
+		assertTrue(shipment.contains("crates = new ArrayList<>(1024);"));
+	}
+
+	@Test
+	public void testElementWithAutoInstantiation() throws Exception {
+		runTest("element-with-auto-instantiation", new String[] { "-Xxew:instantiate auto" }, false, "Contact");
+
+		String contact = FileUtils.readFileToString(
+		            new File(GENERATED_SOURCES_PREFIX + "element_with_auto_instantiation/Contact.java"),
+		            StandardCharsets.UTF_8);
+
+		assertTrue(contact.contains("protected List<String> phones = new ArrayList<>();"));
+		assertTrue(contact.contains("protected List<String> emails;"));
+		assertTrue(contact.contains("emails = new ArrayList<>();"));
+		assertTrue(contact.contains("protected List<String> addresses;"));
+		assertFalse(contact.contains("addresses = new ArrayList<>();"));
+	}
+
+	@Test
+	public void testNullSafeAccessors() throws Exception {
+		runTest("element-with-auto-instantiation", new String[] { "-Xxew:instantiate none", "-Xxew:accessors" }, false,
+		            "Contact");
+
+		String contact = FileUtils.readFileToString(
+		            new File(GENERATED_SOURCES_PREFIX + "element_with_auto_instantiation/Contact.java"),
+		            StandardCharsets.UTF_8);
+
+		assertTrue(contact.contains("public int sizeOfPhones()"));
+		assertTrue(contact.contains("public boolean isPhonesEmpty()"));
+		assertTrue(contact.contains("public void forEachPhones(Consumer<? super String> action)"));
+		assertTrue(contact.contains("return Collections.emptyList();"));
+		assertTrue(contact.contains("public boolean addPhone(String item)"));
+		assertTrue(contact.contains("public boolean addAllPhones(Collection<? extends String> items)"));
+	}
+
+	@Test
+	public void testLazyConcurrentInstantiation() throws Exception {
+		runTest("element-with-auto-instantiation",
+		            new String[] { "-Xxew:instantiate lazyConcurrent",
+		                    "-Xxew:collection java.util.concurrent.CopyOnWriteArrayList", "-Xxew:accessors" },
+		            false, "Contact");
+
+		String contact = FileUtils.readFileToString(
+		            new File(GENERATED_SOURCES_PREFIX + "element_with_auto_instantiation/Contact.java"),
+		            StandardCharsets.UTF_8);
+
+		assertTrue(contact.contains("protected volatile List<String> phones;"));
+		assertTrue(contact.contains("synchronized (this) {"));
+		assertTrue(contact.contains("this.phones = result = new CopyOnWriteArrayList<>();"));
+		// Null-safe accessors read the volatile field once:
+		assertTrue(contact.contains("return ((result == null)? 0 :result.size());"));
+		assertFalse(contact.contains("this.phones.size()"));
+	}
+
+	@Test
+	public void testUnmodifiableCollections() throws Exception {
+		runTest("element-with-auto-instantiation", new String[] { "-Xxew:unmodifiable", "-Xxew:accessors" }, false,
+		            "Contact");
+
+		String contact = FileUtils.readFileToString(
+		            new File(GENERATED_SOURCES_PREFIX + "element_with_auto_instantiation/Contact.java"),
+		            StandardCharsets.UTF_8);
+
+		// Collection is never instantiated by the class itself:
+		assertTrue(contact.contains("protected List<String> phones;"));
+		assertTrue(contact.contains("List<String> copy = new ArrayList<>();"));
+		assertTrue(contact.contains("this.phones = Collections.unmodifiableList(copy);"));
+		assertTrue(contact.contains("protected void afterUnmarshal(Unmarshaller unmarshaller, Object parent)"));
+		assertTrue(contact.contains("this.phones = Collections.unmodifiableList(this.phones);"));
+		assertFalse(contact.contains("public boolean addPhone(String item)"));
+	}
+
+	@Test
+	public void testElementWithPrimitives() throws Exception {
+		runTest("element-with-primitives", new String[] { "-Xxew:primitive" }, false, "Telemetry");
+
+		String telemetry = FileUtils.readFileToString(
+		            new File(GENERATED_SOURCES_PREFIX + "element_with_primitives/Telemetry.java"),
+		            StandardCharsets.UTF_8);
+
+		assertTrue(telemetry.contains("protected double[] samples;"));
+		assertTrue(telemetry.contains("protected long[] counters;"));
+		assertTrue(telemetry.contains("protected boolean[] flags;"));
+		assertTrue(telemetry.contains("@XmlElement(name = \"sample\")"));
+		// Nillable items cannot be stored in primitive array:
+		assertTrue(telemetry.contains("protected List<Integer> readings"));
+	}
+
+	@Test
+	public void testCollectionFactory() throws Exception {
+		runTest("element-with-capacity", new String[] { "-Xxew:collectionInterface java.util.Set",
+		        "-Xxew:collectionFactory java.util.concurrent.ConcurrentHashMap#newKeySet" }, false, "Shipment");
+
+		String shipment = FileUtils.readFileToString(
+		            new File(GENERATED_SOURCES_PREFIX + "element_with_capacity/Shipment.java"), StandardCharsets.UTF_8);
+
+		assertTrue(shipment.contains("protected Set<String> boxes = ConcurrentHashMap.newKeySet(4);"));
+		assertTrue(shipment.contains("protected Set<String> notes = ConcurrentHashMap.newKeySet();"));
+	}
+
+	@Test
+	public void testUnmodifiableCollectionFactory() throws Exception {
+		runTest("element-with-auto-instantiation",
+		            new String[] { "-Xxew:unmodifiable", "-Xxew:collectionInterface java.util.Set",
+		                    "-Xxew:collectionFactory java.util.concurrent.ConcurrentHashMap#newKeySet" },
+		            false, "Contact");
+
+		String contact = FileUtils.readFileToString(
+		            new File(GENERATED_SOURCES_PREFIX + "element_with_auto_instantiation/Contact.java"),
+		            StandardCharsets.UTF_8);
+
+		// The copy of the collection given to setter is created by factory method:
+		assertTrue(contact.contains("Set<String> copy = ConcurrentHashMap.newKeySet();"));
+		assertTrue(contact.contains("this.phones = Collections.unmodifiableSet(copy);"));
+	}
+
+	@Test
+	public void testArrayCollections() throws Exception {
+		runTest("element-with-primitives", new String[] { "-Xxew:collectionInterface array", "-Xxew:primitive" },
+		            false, "Telemetry");
+
+		String telemetry = FileUtils.readFileToString(
+		            new File(GENERATED_SOURCES_PREFIX + "element_with_primitives/Telemetry.java"),
+		            StandardCharsets.UTF_8);
+
+		assertTrue(telemetry.contains("protected double[] samples;"));
+		assertTrue(telemetry.contains("protected Integer[] readings;"));
+		assertTrue(telemetry.contains("public void setReadings(Integer[] readings)"));
+	}
+
+	@Test
+	public void testCompactCollection() throws Exception {
+		runTest("element-with-capacity", new String[] { "-Xxew:compactThreshold 5" }, false, "Shipment");
+
+		String shipment = FileUtils.readFileToString(
+		            new File(GENERATED_SOURCES_PREFIX + "element_with_capacity/Shipment.java"), StandardCharsets.UTF_8);
+
+		// Runtime class is not on XJC classpath, hence it is imported only when it is referred once:
+		assertTrue(shipment.matches("(?s).*boxes = new (com\\.sun\\.tools\\.xjc\\.addon\\.xew\\.runtime\\.)?"
+		            + "CompactList<>\\(\\);.*"));
+		assertTrue(shipment.contains("pallets = new ArrayList<>(20);"));
+		assertTrue(shipment.contains("notes = new ArrayList<>();"));
+	}
+
+	@Test
+	public void testTrimCollections() throws Exception {
+		runTest("element-with-capacity", new String[] { "-Xxew:trim", "-Xxew:compactThreshold 5" }, false,
+		            "Shipment");
+
+		String shipment = FileUtils.readFileToString(
+		            new File(GENERATED_SOURCES_PREFIX + "element_with_capacity/Shipment.java"), StandardCharsets.UTF_8);
+
+		assertTrue(shipment.contains("protected void afterUnmarshal(Unmarshaller unmarshaller, Object parent) {"));
+		// Runtime classes are not on XJC classpath, hence they are not imported:
+		assertTrue(shipment.contains("((" + CommonConfiguration.COMPACT_LIST_CLASS_NAME
+		            + "<String> ) this.boxes).trimToSize();"));
+		assertTrue(shipment.contains(
+		            "this.boxes = new " + CommonConfiguration.COMPACT_LIST_CLASS_NAME + "<>(this.boxes);"));
+		assertTrue(shipment.contains("((ArrayList<String> ) this.pallets).trimToSize();"));
+		// Callback follows the accessors:
+		assertTrue(shipment.indexOf("protected void afterUnmarshal(") > shipment.lastIndexOf("public void set"));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testElementWithKey() throws Exception {
+		JAXBContext jaxbContext = runTest("element-with-key", new String[] { "-Xxew:index" }, false, "Order", "Line",
+		            "Party", "Item", "Contact", "Details");
+
+		String order = FileUtils.readFileToString(
+		            new File(GENERATED_SOURCES_PREFIX + "element_with_key/Order.java"), StandardCharsets.UTF_8);
+
+		assertTrue(order.contains("private transient Map<String, Item> itemsIndex;"));
+		assertTrue(order.contains("public Item findItemById(String key) {"));
+		assertTrue(order.contains("public Party findPartyByCode(String key) {"));
+		assertTrue(order.contains("public Line findLineByNumber(int key) {"));
+		assertTrue(order.contains("this.itemsIndex = null;"));
+		// Identity constraint with several steps in field is not supported:
+		assertFalse(order.contains("findContactBy"));
+
+		Object bean = jaxbContext.createUnmarshaller().unmarshal(getClass().getResource("element-with-key.xml"));
+		Method findMethod = bean.getClass().getMethod("findItemById", String.class);
+		List<Object> items = (List<Object>) bean.getClass().getMethod("getItems").invoke(bean);
+		Object item = items.get(0).getClass().newInstance();
+
+		item.getClass().getMethod("setId", String.class).invoke(item, "A-3");
+
+		assertSame(items.get(1), findMethod.invoke(bean, "A-2"));
+
+		// Item replaced in place is found, as the index is rebuilt on a miss:
+		items.set(1, item);
+		assertSame(item, findMethod.invoke(bean, "A-3"));
+
+		// Setter resets the index:
+		bean.getClass().getMethod("setItems", List.class).invoke(bean, items);
+		assertNull(findMethod.invoke(bean, "A-2"));
+	}
+
+	@Test
+	public void testElementWithMap() throws Exception {
+		runTest("element-with-map", null, false, "Settings", "Properties", "Limits", "Limit");
+
+		String settings = FileUtils.readFileToString(
+		            new File(GENERATED_SOURCES_PREFIX + "element_with_map/Settings.java"), StandardCharsets.UTF_8);
+
+		assertTrue(settings.contains("@XmlJavaTypeAdapter(Settings.PropertiesAdapter.class)"));
+		assertTrue(settings.contains("protected Map<String, String> properties;"));
+		assertTrue(settings.contains("protected Map<String, Long> limits;"));
+		assertTrue(settings.contains("extends XmlAdapter<Limits, Map<String, Long>>"));
+		assertTrue(settings.contains("protected List<String> tags = new ArrayList<>();"));
+	}
+
+	@Test
+	public void testUnwrapElementRef() throws Exception {
+		runTest("element-with-element-ref", new String[] { "-Xxew:unwrapElementRef" }, false, "Catalog",
+		            "package-info");
+
+		String catalog = FileUtils.readFileToString(
+		            new File(GENERATED_SOURCES_PREFIX + "element_with_element_ref/Catalog.java"),
+		            StandardCharsets.UTF_8);
+
+		assertTrue(catalog.contains("@XmlElement(name = \"title\", namespace = \"http://example.com/refs\")"));
+		assertTrue(catalog.contains("protected List<String> titles = new ArrayList<>();"));
+		assertTrue(catalog.contains("protected List<Integer> years = new ArrayList<>();"));
+		// Nillable element is not unwrapped:
+		assertTrue(catalog.contains("protected List<JAXBElement<Integer>> prices = new ArrayList<>();"));
+	}
+
+	@Test
+	public void testRawAny() throws Exception {
+		runTest("element-any-raw", new String[] { "-Xxew:rawAny" }, false, "Envelope");
+
+		String envelope = FileUtils.readFileToString(
+		            new File(GENERATED_SOURCES_PREFIX + "element_any_raw/Envelope.java"), StandardCharsets.UTF_8);
+
+		// Runtime class may be not available on XJC classpath, hence it can be referred by full name:
+		assertTrue(envelope.contains("RawXmlDomHandler.class, lax = true)"));
+		assertTrue(envelope.contains("RawXmlDomHandler.class)"));
+		assertTrue(envelope.contains("protected List<Element> body = new ArrayList<>();"));
+	}
+
+	@Test
+	public void testStreamReader() throws Exception {
+		JAXBContext jaxbContext = runTest("element-with-element-ref",
+		            new String[] { "-Xxew:unwrapElementRef", "-Xxew:streamReader" }, false, "Catalog", "package-info");
+
+		String catalog = FileUtils.readFileToString(
+		            new File(GENERATED_SOURCES_PREFIX + "element_with_element_ref/Catalog.java"),
+		            StandardCharsets.UTF_8);
+
+		assertTrue(catalog.contains("public static Stream<String> streamTitles(final XMLStreamReader reader, "
+		            + "final Unmarshaller unmarshaller)"));
+		assertTrue(catalog.contains("QName wrapperName = new QName(\"http://example.com/refs\", \"titles\");"));
+		assertTrue(catalog.contains("Integer item = unmarshaller.unmarshal(reader, Integer.class).getValue();"));
+		// Items wrapped into JAXBElement are not bound by type:
+		assertFalse(catalog.contains("streamPrices"));
+
+		try (InputStream inputStream = getClass().getResourceAsStream("element-with-element-ref.xml")) {
+			XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(inputStream);
+
+			Stream<?> titles = (Stream<?>) getCatalogClass(jaxbContext)
+			            .getMethod("streamTitles", XMLStreamReader.class, Unmarshaller.class)
+			            .invoke(null, reader, jaxbContext.createUnmarshaller());
+
+			assertEquals(Arrays.asList("Alice in Wonderland", "Through the Looking-Glass"),
+			            titles.collect(Collectors.toList()));
+		}
+	}
+
+	@Test
+	public void testStreamWriter() throws Exception {
+		JAXBContext jaxbContext = runTest("element-with-element-ref",
+		            new String[] { "-Xxew:unwrapElementRef", "-Xxew:streamWriter" }, false, "Catalog", "package-info");
+
+		String catalog = FileUtils.readFileToString(
+		            new File(GENERATED_SOURCES_PREFIX + "element_with_element_ref/Catalog.java"),
+		            StandardCharsets.UTF_8);
+
+		assertTrue(catalog.contains("public static void writeTitles(XMLStreamWriter writer, Marshaller marshaller, "
+		            + "Iterator<? extends String> items)"));
+		assertTrue(catalog.contains("writer.writeStartElement(prefix, \"titles\", \"http://example.com/refs\");"));
+		assertTrue(catalog.contains("QName itemName = new QName(\"http://example.com/refs\", \"title\");"));
+		assertTrue(catalog.contains("marshaller.setProperty(Marshaller.JAXB_FRAGMENT, fragment);"));
+		// Items wrapped into JAXBElement are not bound by type:
+		assertFalse(catalog.contains("writePrices"));
+
+		StringWriter stringWriter = new StringWriter();
+		XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(stringWriter);
+
+		getCatalogClass(jaxbContext).getMethod("writeTitles", XMLStreamWriter.class, Marshaller.class, Iterator.class)
+		            .invoke(null, writer, jaxbContext.createMarshaller(),
+		                        Arrays.asList("Alice in Wonderland", "Through the Looking-Glass").iterator());
+		writer.flush();
+
+		assertXMLEqual("<titles xmlns=\"http://example.com/refs\"><title>Alice in Wonderland</title>"
+		            + "<title>Through the Looking-Glass</title></titles>", stringWriter.toString());
+	}
+
+	@Test
+	public void testDeferred() throws Exception {
+		runTest("element-with-element-ref", new String[] { "-Xxew:unwrapElementRef", "-Xxew:deferred" }, false,
+		            "Catalog", "package-info");
+
+		String catalog = FileUtils.readFileToString(
+		            new File(GENERATED_SOURCES_PREFIX + "element_with_element_ref/Catalog.java"),
+		            StandardCharsets.UTF_8);
+
+		assertTrue(catalog.contains("@XmlJavaTypeAdapter(Catalog.TitlesAdapter.class)"));
+		assertTrue(catalog.contains("DeferredListAdapter<String>"));
+		assertTrue(catalog.contains("super(String.class, new QName(\"http://example.com/refs\", \"title\"));"));
+		// Items wrapped into JAXBElement are not bound by type:
+		assertFalse(catalog.contains("PricesAdapter"));
+	}
+
+	@Test
+	public void testElementWithSkip() throws Exception {
+		runTest("element-with-skip",
+		            new String[] {
+		                    "-Xxew:control " + getClass().getResource("element-with-skip-control.txt").getFile() },
+		            false, "Report");
+
+		String report = FileUtils.readFileToString(
+		            new File(GENERATED_SOURCES_PREFIX + "element_with_skip/Report.java"), StandardCharsets.UTF_8);
+
+		assertTrue(report.contains("@XmlElementWrapper(required = true)"));
+		assertEquals(2, StringUtils.countMatches(report, "@XmlTransient"));
+		// Skipped fields are removed from property order:
+		assertTrue(report.contains("propOrder = {\n    \"title\",\n    \"sections\"\n})"));
+	}
+
+	@Test
+	public void testLimitCollections() throws Exception {
+		runTest("element-with-capacity", new String[] { "-Xxew:limit 1000" }, false, "Shipment");
+
+		String shipment = FileUtils.readFileToString(
+		            new File(GENERATED_SOURCES_PREFIX + "element_with_capacity/Shipment.java"), StandardCharsets.UTF_8);
+
+		assertTrue(shipment.contains("protected void beforeUnmarshal(Unmarshaller unmarshaller, Object parent) {"));
+		// Runtime classes are not on XJC classpath, hence they are not imported. Limit is restricted by maxOccurs:
+		assertTrue(shipment.contains("this.boxes = new " + CommonConfiguration.BOUNDED_LIST_CLASS_NAME
+		            + "<>(4, \"element_with_capacity.Shipment#boxes\", this.boxes, unmarshaller);"));
+		assertTrue(shipment.contains("this.notes = new " + CommonConfiguration.BOUNDED_LIST_CLASS_NAME
+		            + "<>(1000, \"element_with_capacity.Shipment#notes\", this.notes, unmarshaller);"));
+		// Items are copied to the configured collection after unmarshalling:
+		assertTrue(shipment.contains("protected void afterUnmarshal(Unmarshaller unmarshaller, Object parent) {"));
+		assertTrue(shipment.contains("boundedList.checkLimit();"));
+		assertTrue(shipment.contains("this.boxes = new ArrayList<>(4);"));
+		assertTrue(shipment.contains("this.boxes.addAll(boundedList);"));
+		// Callbacks follow the accessors:
+		assertTrue(shipment.indexOf("protected void beforeUnmarshal(") > shipment.lastIndexOf("public void set"));
+	}
+
+	/**
+	 * Returns the class of the root element of {@code element-with-element-ref.xml} as loaded by given context.
+	 */
+	private Class<?> getCatalogClass(JAXBContext jaxbContext) throws Exception {
+		return jaxbContext.createUnmarshaller().unmarshal(getClass().getResource("element-with-element-ref.xml"))
+		            .getClass();
+	}
+}
@@ -72,7 +72,8 @@ import org.xml.sax.SAXException;
 public class XmlElementWrapperPluginTest {
 
 	private static final String	PREGENERATED_SOURCES_PREFIX	= "src/test/generated_resources/";
-	private static final String	GENERATED_SOURCES_PREFIX	= "target/test/generated_xsd_classes/";
+	static final String			GENERATED_SOURCES_PREFIX	= "target/test/generated_xsd_classes/";
+	private static final String	RUNTIME_SOURCES_PREFIX		= "runtime/src/main/java/";
 
 	private static final Log	logger						= LogFactory.getLog(XmlElementWrapperPluginTest.class);
 
@@ -250,8 +251,9 @@ public class XmlElementWrapperPluginTest {
 	 * @param classesToCheck
 	 *            expected classes/files in target directory; these files content is checked if it is present in
 	 *            resources directory; {@code ObjectFactory.java} is automatically included
+	 * @return the context of compiled classes
 	 */
-	static void runTest(String testName, String[] extraXewOptions, boolean generateEpisode, String... classesToCheck)
+	static JAXBContext runTest(String testName, String[] extraXewOptions, boolean generateEpisode, String... classesToCheck)
 	            throws Exception {
 		String resourceXsd = testName + ".xsd";
 		String packageName = testName.replace('-', '_');
@@ -364,6 +366,13 @@ public class XmlElementWrapperPluginTest {
 		URL xmlTestFile = XmlElementWrapperPluginTest.class.getResource(testName + ".xml");
 
 		if (xmlTestFile != null) {
+			// The document which is expected to be marshalled, if it is different from the unmarshalled one:
+			URL marshalledXmlTestFile = XmlElementWrapperPluginTest.class.getResource(testName + "-marshalled.xml");
+
+			if (marshalledXmlTestFile == null) {
+				marshalledXmlTestFile = xmlTestFile;
+			}
+
 			StringWriter writer = new StringWriter();
 
 			SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
@@ -378,10 +387,13 @@ public class XmlElementWrapperPluginTest {
 
 			XMLUnit.setIgnoreComments(true);
 			XMLUnit.setIgnoreWhitespace(true);
-			Diff xmlDiff = new Diff(IOUtils.toString(xmlTestFile, StandardCharsets.UTF_8), writer.toString());
+			Diff xmlDiff = new Diff(IOUtils.toString(marshalledXmlTestFile, StandardCharsets.UTF_8),
+			            writer.toString());
 
 			assertXMLEqual("Generated XML is wrong: " + writer.toString(), xmlDiff, true);
 		}
+
+		return jaxbContext;
 	}
 
 	/**
@@ -411,6 +423,11 @@ public class XmlElementWrapperPluginTest {
 				public InputStream openInputStream() throws IOException {
 					return Files.newInputStream(file.toPath());
 				}
+
+				@Override
+				public CharSequence getCharContent(boolean ignoreEncodingErrors) throws IOException {
+					return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+				}
 			};
 		}
 
@@ -421,7 +438,9 @@ public class XmlElementWrapperPluginTest {
 				compiler.getStandardFileManager(null, null, null),
 				targets
 		)) {
-			if (!compiler.getTask(null, manager, null, null, null, Arrays.asList(javaSources)).call()) {
+			// Classes of plugin runtime companion artifact referred by generated sources are compiled from sources:
+			if (!compiler.getTask(null, manager, null, Arrays.asList("-sourcepath", RUNTIME_SOURCES_PREFIX), null,
+			            Arrays.asList(javaSources)).call()) {
 				fail("javac failed");
 			}
 		} catch (IOException e) {